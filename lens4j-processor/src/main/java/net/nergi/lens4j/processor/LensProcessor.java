@@ -0,0 +1,192 @@
+package net.nergi.lens4j.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates lens constants for records annotated with <code>net.nergi.lens4j.GenerateLenses</code>.
+ * <p>
+ * Each component gets a private nested class for its accessor and another for its replacer, so the generated lenses
+ * are plain object constructions: nothing is looked up reflectively or bootstrapped through
+ * {@link java.lang.invoke.LambdaMetafactory} when the companion class is initialised.
+ */
+@SupportedAnnotationTypes(LensProcessor.ANNOTATION)
+public final class LensProcessor extends AbstractProcessor {
+    /** The annotation this processor handles. */
+    static final String ANNOTATION = "net.nergi.lens4j.GenerateLenses";
+
+    /** Suffix of the generated class names. */
+    private static final String SUFFIX = "Lenses";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (isSupported(element)) {
+                    generate((TypeElement) element);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /** Check if lenses can be generated for an element, reporting an error if not. */
+    private boolean isSupported(Element element) {
+        final String problem;
+        if (element.getKind() != ElementKind.RECORD) {
+            problem = "Lenses can only be generated for records.";
+        } else if (!((TypeElement) element).getTypeParameters().isEmpty()) {
+            problem = "Lenses cannot be generated for generic records.";
+        } else if (element.getModifiers().contains(Modifier.PRIVATE)) {
+            problem = "Lenses cannot be generated for private records.";
+        } else {
+            return true;
+        }
+
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, problem, element);
+        return false;
+    }
+
+    /** Generate the companion class of a record. */
+    private void generate(TypeElement record) {
+        final PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(record);
+        final String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        final String className = companionName(record);
+        final String recordName = record.getQualifiedName().toString();
+        final List<? extends RecordComponentElement> components = record.getRecordComponents();
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler()
+            .createSourceFile(packageName.isEmpty() ? className : packageName + '.' + className, record)
+            .openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+
+            out.println("/** Lenses for the components of {@link " + recordName + "}. */");
+            out.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+            out.println("public final class " + className + " {");
+
+            for (final RecordComponentElement component : components) {
+                final String name = component.getSimpleName().toString();
+                final String focus = focusName(name);
+                out.println("    /** Lens for {@link " + recordName + "#" + name + "()}. */");
+                out.println("    public static final net.nergi.lens4j.SimpleLens<" + recordName + ", "
+                    + boxedName(component.asType()) + "> " + constantName(name) + " =");
+                out.println("        new net.nergi.lens4j.SimpleLens<>(new " + focus + "Accessor(), new " + focus
+                    + "Replacer());");
+                out.println();
+            }
+
+            out.println("    private " + className + "() {");
+            out.println("        // This class cannot be instantiated.");
+            out.println("    }");
+
+            for (final RecordComponentElement component : components) {
+                out.println();
+                writeAccessor(out, recordName, component);
+                out.println();
+                writeReplacer(out, recordName, components, component);
+            }
+
+            out.println("}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Failed to generate lenses: " + e.getMessage(), record);
+        }
+    }
+
+    /** Write the nested class acting as the accessor of a component. */
+    private void writeAccessor(PrintWriter out, String recordName, RecordComponentElement component) {
+        final String name = component.getSimpleName().toString();
+        final String type = boxedName(component.asType());
+
+        out.println("    private static final class " + focusName(name) + "Accessor");
+        out.println("        implements java.util.function.Function<" + recordName + ", " + type + "> {");
+        out.println("        @Override");
+        out.println("        public " + type + " apply(" + recordName + " instance) {");
+        out.println("            return instance." + name + "();");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    /** Write the nested class acting as the replacer of a component. */
+    private void writeReplacer(PrintWriter out, String recordName, List<? extends RecordComponentElement> components,
+                               RecordComponentElement component) {
+        final String name = component.getSimpleName().toString();
+        final String type = boxedName(component.asType());
+
+        // The canonical constructor call, with the new value in place of this component.
+        final List<String> arguments = new ArrayList<>(components.size());
+        for (final RecordComponentElement other : components) {
+            arguments.add(other == component ? "value" : "instance." + other.getSimpleName() + "()");
+        }
+
+        out.println("    private static final class " + focusName(name) + "Replacer");
+        out.println("        implements java.util.function.BiFunction<" + type + ", " + recordName + ", " + recordName
+            + "> {");
+        out.println("        @Override");
+        out.println("        public " + recordName + " apply(" + type + " value, " + recordName + " instance) {");
+        out.println("            return new " + recordName + "(" + String.join(", ", arguments) + ");");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    /** The name of the companion class of a record: its enclosing classes and itself, then the suffix. */
+    private static String companionName(TypeElement record) {
+        final List<String> names = new ArrayList<>();
+        for (Element current = record; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            names.add(0, current.getSimpleName().toString());
+        }
+
+        return String.join("_", names) + SUFFIX;
+    }
+
+    /** The name of the type of a component, boxed if it is primitive. */
+    private String boxedName(TypeMirror type) {
+        return type.getKind().isPrimitive()
+            ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).toString()
+            : type.toString();
+    }
+
+    /** The prefix of the nested classes for a component, such as <code>CityName</code>. */
+    private static String focusName(String component) {
+        return Character.toUpperCase(component.charAt(0)) + component.substring(1);
+    }
+
+    /** The name of the constant for a component, such as <code>CITY_NAME</code>. */
+    static String constantName(String component) {
+        final StringBuilder name = new StringBuilder(component.length() + 4);
+        for (int i = 0; i < component.length(); ++i) {
+            final char c = component.charAt(i);
+            if (i > 0 && Character.isUpperCase(c) && !Character.isUpperCase(component.charAt(i - 1))) {
+                name.append('_');
+            }
+            name.append(Character.toUpperCase(c));
+        }
+
+        return name.toString();
+    }
+}
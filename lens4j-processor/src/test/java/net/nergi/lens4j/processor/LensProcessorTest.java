@@ -0,0 +1,111 @@
+package net.nergi.lens4j.processor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import net.nergi.lens4j.SimpleLens;
+import org.junit.jupiter.api.Test;
+
+class LensProcessorTest {
+    @Test
+    void processorShouldGenerateWorkingLenses() throws Exception {
+        // Our annotated record.
+        final Path output = compile("example.Person", """
+            package example;
+
+            @net.nergi.lens4j.GenerateLenses
+            public record Person(String fullName, int age) {
+            }
+            """);
+
+        final URL[] urls = {output.toUri().toURL()};
+        try (URLClassLoader loader = new URLClassLoader(urls, getClass().getClassLoader())) {
+            final Class<?> person = loader.loadClass("example.Person");
+            final Class<?> lenses = loader.loadClass("example.PersonLenses");
+            final Constructor<?> constructor = person.getConstructor(String.class, int.class);
+
+            // The generated lenses.
+            final SimpleLens<Object, String> fullName = constant(lenses, "FULL_NAME");
+            final SimpleLens<Object, Integer> age = constant(lenses, "AGE");
+
+            // Testing if the generated lenses view, set and map the components.
+            final Object init = constructor.newInstance("Alice", 30);
+            assertEquals("Alice", fullName.view(init));
+            assertEquals(constructor.newInstance("Bob", 30), fullName.set("Bob", init));
+            assertEquals(constructor.newInstance("Alice", 31), age.over(i -> i + 1, init));
+        }
+    }
+
+    @Test
+    void processorShouldNameNestedRecordsAfterEnclosingClasses() throws Exception {
+        // Our nested annotated record.
+        final Path output = compile("example.Outer", """
+            package example;
+
+            public class Outer {
+                @net.nergi.lens4j.GenerateLenses
+                record Inner(long count) {
+                }
+            }
+            """);
+
+        // Testing if the companion class is named after the enclosing class.
+        assertTrue(Files.exists(output.resolve("example/Outer_InnerLenses.class")));
+    }
+
+    @Test
+    void processorShouldRejectNonRecords() {
+        // Testing if classes are rejected.
+        assertThrows(IllegalStateException.class, () -> compile("example.NotRecord", """
+            package example;
+
+            @net.nergi.lens4j.GenerateLenses
+            public class NotRecord {
+            }
+            """));
+    }
+
+    @Test
+    void constantNamesShouldBeUpperSnakeCase() {
+        assertEquals("NAME", LensProcessor.constantName("name"));
+        assertEquals("CITY_NAME", LensProcessor.constantName("cityName"));
+        assertEquals("URL", LensProcessor.constantName("URL"));
+    }
+
+    // Reads a generated lens constant.
+    @SuppressWarnings("unchecked")
+    private static <F> SimpleLens<Object, F> constant(Class<?> lenses, String name) throws ReflectiveOperationException {
+        return (SimpleLens<Object, F>) lenses.getField(name).get(null);
+    }
+
+    // Compiles a single source file with the processor, returning the output directory.
+    private static Path compile(String className, String source) throws IOException {
+        final Path sources = Files.createTempDirectory("lens4j-sources");
+        final Path output = Files.createTempDirectory("lens4j-classes");
+        final Path file = sources.resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source);
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final StringWriter errors = new StringWriter();
+        final boolean success = compiler.getTask(errors, null, null,
+            List.of("-classpath", System.getProperty("java.class.path"), "-d", output.toString(),
+                "-processor", LensProcessor.class.getName()),
+            null, compiler.getStandardFileManager(null, null, null).getJavaFileObjects(file)).call();
+
+        if (!success) {
+            throw new IllegalStateException(errors.toString());
+        }
+
+        return output;
+    }
+}
@@ -0,0 +1,134 @@
+package net.nergi.lens4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares plain and compiled lenses through a chain of records, as used by an application with many lenses.
+ * <p>
+ * Before measuring, the setup runs a few dozen unrelated lenses, compiled and not, so the calls in {@link Lens} to the
+ * functions of a lens are megamorphic, as they are once an application uses lenses everywhere. Plain lenses then
+ * dispatch through those calls at every stage of their path, while a compiled lens dispatches once into its hidden
+ * class and runs an inlined handle tree from there. The <code>record</code> benchmarks compile lenses from
+ * {@link Lenses#forRecord}, whose trees end in the record accessors and canonical constructors rather than in lambdas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LensCompileBenchmark {
+    /** Number of unrelated lenses run before measuring. */
+    private static final int POLLUTERS = 32;
+
+    /** Number of records between the root and the field. */
+    @Param({"1", "4", "8"})
+    public int depth;
+
+    private Link init;
+    private SimpleLens<Link, Integer> plain;
+    private SimpleLens<Link, Integer> compiled;
+    private SimpleLens<Link, Integer> record;
+    private final UnaryOperator<Integer> increment = i -> i + 1;
+
+    @Setup
+    public void setup() {
+        Link link = new Link(null, 5, "leaf");
+        for (int i = 1; i < depth; ++i) {
+            link = new Link(link, i, "link");
+        }
+        init = link;
+
+        final SimpleLens<Link, Link> nextRecord = Lenses.forRecord(Link.class, "next");
+        plain = new SimpleLens<>(Link::value, (v, l) -> new Link(l.next(), v, l.name()));
+        record = Lenses.forRecord(Link.class, "value");
+        for (int i = 1; i < depth; ++i) {
+            plain = new SimpleLens<Link, Link>(Link::next, (n, l) -> new Link(n, l.value(), l.name()))
+                .andThenSimple(plain);
+            record = nextRecord.andThenSimple(record);
+        }
+        compiled = plain.compile();
+        record = record.compile();
+
+        pollute();
+    }
+
+    @Benchmark
+    public Integer plainView() {
+        return plain.view(init);
+    }
+
+    @Benchmark
+    public Integer compiledView() {
+        return compiled.view(init);
+    }
+
+    @Benchmark
+    public Integer recordView() {
+        return record.view(init);
+    }
+
+    @Benchmark
+    public Link plainSet() {
+        return plain.set(7, init);
+    }
+
+    @Benchmark
+    public Link compiledSet() {
+        return compiled.set(7, init);
+    }
+
+    @Benchmark
+    public Link recordSet() {
+        return record.set(7, init);
+    }
+
+    @Benchmark
+    public Link plainOver() {
+        return plain.over(increment, init);
+    }
+
+    @Benchmark
+    public Link compiledOver() {
+        return compiled.over(increment, init);
+    }
+
+    @Benchmark
+    public Link recordOver() {
+        return record.over(increment, init);
+    }
+
+    /** Run many unrelated lenses, so the calls to lens functions see many types. */
+    private void pollute() {
+        final Link link = new Link(null, 0, "");
+        for (int i = 0; i < POLLUTERS; ++i) {
+            final int offset = i;
+            final SimpleLens<Link, Integer> lens =
+                new SimpleLens<>(l -> l.value() + offset, (v, l) -> new Link(l.next(), v - offset, l.name()));
+            final SimpleLens<Link, String> name =
+                new SimpleLens<>(l -> l.name() + offset, (n, l) -> new Link(l.next(), l.value(), n));
+            final SimpleLens<Link, Integer> compiledLens = lens.compile();
+            for (int j = 0; j < 20_000; ++j) {
+                lens.over(increment, lens.set(j, link));
+                name.view(name.set("", link));
+                compiledLens.over(increment, compiledLens.set(j, link));
+            }
+        }
+    }
+
+    /** A link in a chain of records, with the field in the last one. */
+    public record Link(Link next, int value, String name) {
+    }
+}
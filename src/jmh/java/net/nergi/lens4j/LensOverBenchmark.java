@@ -0,0 +1,118 @@
+package net.nergi.lens4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Lens#over} through chains of composed lenses of increasing depth.
+ * <p>
+ * Alongside the timings, the <code>accessorCalls</code> and <code>overCalls</code> counters report how many accessors
+ * were run in total, so dividing one by the other gives the accessor invocations per <code>over</code>. The
+ * <code>nested</code> benchmark composes lenses the way {@link Lens#andThen} used to, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LensOverBenchmark {
+    /** Depth of the chain of lenses. */
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15", "16"})
+    public int depth;
+
+    /** Accessor invocations since the last operation. */
+    private long calls;
+
+    private Nest init;
+    private SimpleLens<Nest, Integer> flattened;
+    private SimpleLens<Nest, Integer> nested;
+    private final UnaryOperator<Integer> increment = i -> i + 1;
+
+    @Setup
+    public void setup() {
+        init = Nest.of(depth, 5);
+        flattened = valueLens();
+        nested = valueLens();
+
+        for (int i = 1; i < depth; ++i) {
+            flattened = innerLens().andThenSimple(flattened);
+            nested = nest(innerLens(), nested);
+        }
+    }
+
+    @Benchmark
+    public Nest flattened(Counters counters) {
+        return count(flattened.over(increment, init), counters);
+    }
+
+    @Benchmark
+    public Nest nested(Counters counters) {
+        return count(nested.over(increment, init), counters);
+    }
+
+    /** Counts of the accessors run, reported by JMH for each iteration. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long accessorCalls;
+        public long overCalls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            accessorCalls = 0;
+            overCalls = 0;
+        }
+    }
+
+    private Nest count(Nest result, Counters counters) {
+        counters.accessorCalls += calls;
+        counters.overCalls += 1;
+        calls = 0;
+        return result;
+    }
+
+    private SimpleLens<Nest, Nest> innerLens() {
+        return new SimpleLens<>(n -> {
+            ++calls;
+            return n.inner();
+        }, (i, n) -> new Nest(i, n.value()));
+    }
+
+    private SimpleLens<Nest, Integer> valueLens() {
+        return new SimpleLens<>(n -> {
+            ++calls;
+            return n.value();
+        }, (v, n) -> new Nest(n.inner(), v));
+    }
+
+    /** Composes two lenses by nesting their functions, without flattening. */
+    private static <A, B, C> SimpleLens<A, C> nest(SimpleLens<A, B> outer, SimpleLens<B, C> inner) {
+        return new SimpleLens<>(a -> inner.view(outer.view(a)), (c, a) -> outer.set(inner.set(c, outer.view(a)), a));
+    }
+
+    /** A nested container type. */
+    public record Nest(Nest inner, int value) {
+        static Nest of(int depth, int value) {
+            Nest nest = new Nest(null, value);
+            for (int i = 1; i < depth; ++i) {
+                nest = new Nest(nest, 0);
+            }
+
+            return nest;
+        }
+    }
+}
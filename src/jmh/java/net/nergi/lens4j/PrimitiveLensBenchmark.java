@@ -0,0 +1,118 @@
+package net.nergi.lens4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+import java.util.function.UnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares boxed and primitive lenses reaching a numeric field through a chain of records.
+ * <p>
+ * Run with the GC profiler (<code>-prof gc</code>, which the build enables) and compare
+ * <code>gc.alloc.rate.norm</code>: the primitive benchmarks only allocate the rebuilt records, one <code>Cell</code>
+ * per level, while the boxed ones also allocate an {@link Integer} or {@link Long} for the old and new value of the
+ * field. The values are kept outside the boxing caches so that this shows up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrimitiveLensBenchmark {
+    /** Number of records between the root and the field. */
+    @Param({"1", "4", "8"})
+    public int depth;
+
+    private Cell init;
+    private SimpleLens<Cell, Integer> boxedCount;
+    private SimpleLens<Cell, Long> boxedTotal;
+    private IntLens<Cell> count;
+    private LongLens<Cell> total;
+
+    private final UnaryOperator<Integer> boxedIncrement = i -> i + 1;
+    private final UnaryOperator<Long> boxedAdd = t -> t + 1000L;
+    private final IntUnaryOperator increment = i -> i + 1;
+    private final LongUnaryOperator add = t -> t + 1000L;
+
+    @Setup
+    public void setup() {
+        final SimpleLens<Cell, Cell> next = Lenses.forRecord(Cell.class, "next");
+        final SimpleLens<Cell, Integer> leafCount = Lenses.forRecord(Cell.class, "count");
+        final SimpleLens<Cell, Long> leafTotal = Lenses.forRecord(Cell.class, "total");
+
+        Cell cell = new Cell(null, 1_000_000, 1L << 40);
+        SimpleLens<Cell, Cell> path = null;
+        for (int i = 1; i < depth; ++i) {
+            cell = new Cell(cell, 0, 0L);
+            path = path == null ? next : path.andThenSimple(next);
+        }
+        init = cell;
+
+        final IntLens<Cell> countField = new IntLens<>(Cell::count, (c, leaf) -> leaf.withCount(c));
+        final LongLens<Cell> totalField = new LongLens<>(Cell::total, (t, leaf) -> leaf.withTotal(t));
+        if (path == null) {
+            boxedCount = leafCount;
+            boxedTotal = leafTotal;
+            count = countField;
+            total = totalField;
+        } else {
+            boxedCount = path.andThenSimple(leafCount);
+            boxedTotal = path.andThenSimple(leafTotal);
+            count = path.andThenInt(countField);
+            total = path.andThenLong(totalField);
+        }
+    }
+
+    @Benchmark
+    public Cell boxedOverInt() {
+        return boxedCount.over(boxedIncrement, init);
+    }
+
+    @Benchmark
+    public Cell primitiveOverInt() {
+        return count.overInt(increment, init);
+    }
+
+    @Benchmark
+    public Cell boxedSetLong() {
+        return boxedTotal.set(init.total() + 1L, init);
+    }
+
+    @Benchmark
+    public Cell primitiveSetLong() {
+        return total.setLong(init.total() + 1L, init);
+    }
+
+    @Benchmark
+    public Cell boxedOverLong() {
+        return boxedTotal.over(boxedAdd, init);
+    }
+
+    @Benchmark
+    public Cell primitiveOverLong() {
+        return total.overLong(add, init);
+    }
+
+    /** A link in a chain of records, with the numeric fields in the last one. */
+    public record Cell(Cell next, int count, long total) {
+        Cell withCount(int count) {
+            return new Cell(next, count, total);
+        }
+
+        Cell withTotal(long total) {
+            return new Cell(next, count, total);
+        }
+    }
+}
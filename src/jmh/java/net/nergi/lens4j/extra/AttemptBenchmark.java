@@ -0,0 +1,93 @@
+package net.nergi.lens4j.extra;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares ways of turning a failing parse into a {@link Left}, over inputs where about 30% are invalid.
+ * <p>
+ * Every benchmark runs the same parser, a few frames down as it would be in real code, and only the exception it
+ * fails with differs. <code>tryCatch</code> converts an ordinary {@link IllegalArgumentException} by hand,
+ * <code>attempt</code> does the same through {@link Either#attempt}, and <code>attemptFailure</code> has the parser
+ * throw a stackless {@link Failure} instead, which skips filling in the stack trace. The deeper the stack at the point
+ * of failure, the more the last one saves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AttemptBenchmark {
+    /** Number of inputs parsed per invocation. */
+    private static final int INPUTS = 1000;
+
+    /** Number of frames between the benchmark and the point of failure. */
+    private static final int DEPTH = 8;
+
+    private String[] inputs;
+
+    @Setup
+    public void setup() {
+        inputs = new String[INPUTS];
+        for (int i = 0; i < INPUTS; ++i) {
+            inputs[i] = i % 10 < 3 ? "x" + i : Integer.toString(i);
+        }
+    }
+
+    @Benchmark
+    public void tryCatch(Blackhole blackhole) {
+        for (final String input : inputs) {
+            Either<Exception, Integer> result;
+            try {
+                result = Either.toRight(parse(input, DEPTH, false));
+            } catch (IllegalArgumentException e) {
+                result = Either.toLeft(e);
+            }
+            blackhole.consume(result);
+        }
+    }
+
+    @Benchmark
+    public void attempt(Blackhole blackhole) {
+        for (final String input : inputs) {
+            blackhole.consume(Either.attempt(() -> parse(input, DEPTH, false)));
+        }
+    }
+
+    @Benchmark
+    public void attemptFailure(Blackhole blackhole) {
+        for (final String input : inputs) {
+            blackhole.consume(Either.attempt(() -> parse(input, DEPTH, true)));
+        }
+    }
+
+    /** Parse a number some frames down, failing with a {@link Failure} if light, or an ordinary exception if not. */
+    private static int parse(String input, int depth, boolean light) {
+        if (depth > 0) {
+            return parse(input, depth - 1, light);
+        }
+
+        int value = 0;
+        for (int i = 0; i < input.length(); ++i) {
+            final char c = input.charAt(i);
+            if (c < '0' || c > '9') {
+                final String message = "Not a number: " + input;
+                throw light ? new Failure(message) : new IllegalArgumentException(message);
+            }
+            value = value * 10 + (c - '0');
+        }
+
+        return value;
+    }
+}
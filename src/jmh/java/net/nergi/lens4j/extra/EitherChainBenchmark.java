@@ -0,0 +1,64 @@
+package net.nergi.lens4j.extra;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a chain of {@link Either#map} and {@link Either#flatMap} steps that fails at the first one.
+ * <p>
+ * With the GC profiler enabled, <code>gc.alloc.rate.norm</code> for <code>failedChain</code> is the size of the one
+ * {@link Left} created by the first step, however many steps follow, as every later step hands back the same instance.
+ * <code>successfulChain</code> allocates a {@link Right} per step, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EitherChainBenchmark {
+    /** Number of steps in the chain. */
+    @Param({"5", "20"})
+    public int stages;
+
+    private final Function<Integer, Either<String, Integer>> fail = i -> Either.toLeft("invalid");
+    private final Function<Integer, Either<String, Integer>> check = Either::toRight;
+    private final Function<Integer, Integer> increment = i -> i + 1;
+
+    private Integer input;
+
+    @Setup
+    public void setup() {
+        input = 1000;
+    }
+
+    @Benchmark
+    public Either<String, Integer> failedChain() {
+        return chain(fail.apply(input));
+    }
+
+    @Benchmark
+    public Either<String, Integer> successfulChain() {
+        return chain(check.apply(input));
+    }
+
+    private Either<String, Integer> chain(Either<String, Integer> first) {
+        Either<String, Integer> current = first;
+        for (int i = 1; i < stages; ++i) {
+            current = (i & 1) == 0 ? current.map(increment) : current.flatMap(check);
+        }
+
+        return current;
+    }
+}
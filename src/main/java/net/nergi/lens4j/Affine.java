@@ -0,0 +1,264 @@
+package net.nergi.lens4j;
+
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The Affine optic, focusing on at most one item of an instance.
+ * <p>
+ * This is what composing a lens with a prism gives: the field is always there, but the case of it may not match. It
+ * also focuses on nullable fields, through {@link #nullable}, where a null field has nothing to focus on.
+ * <p>
+ * Absence is signalled internally by a sentinel object rather than by {@link Optional}, so viewing, setting and
+ * mapping through an affine optic allocate nothing but the rebuilt instances. Only {@link #preview} wraps its result;
+ * use {@link #previewOrElse} or {@link #matches} on hot paths. Mapping over or setting an instance with nothing to
+ * focus on returns the instance itself, as does mapping to the same item, compared by identity.
+ * <p>
+ * Composed optics are flattened into the single optics they are made of, like composed lenses. Setting or mapping
+ * through them probes each optic once on the way down, and rebuilds each instance once on the way back up.
+ *
+ * @param <S> The class being viewed.
+ * @param <A> The item being viewed.
+ */
+public final class Affine<S, A> {
+    /** Returned by {@link #probe}, and by the probes of prisms, in place of the item, if there is none. */
+    static final Object ABSENT = new Object();
+
+    /** The function getting the item of an instance, or {@link #ABSENT} if there is none. */
+    private final Function<S, Object> probe;
+
+    /** The function setting the item of an instance, only called on instances that have one. Null if composed. */
+    private final BiFunction<A, S, S> replacer;
+
+    /** The single optics making up this optic, from the outermost. Just this optic if not composed. */
+    private final Affine<Object, Object>[] stages;
+
+    /**
+     * Create an affine optic.
+     *
+     * @param matcher Predicate checking if an instance has an item.
+     * @param accessor Function getting the item of an instance, only called on instances that have one.
+     * @param replacer Function setting the item of an instance, only called on instances that have one.
+     */
+    public Affine(Predicate<S> matcher, Function<S, A> accessor, BiFunction<A, S, S> replacer) {
+        this(instance -> matcher.test(instance) ? accessor.apply(instance) : ABSENT, replacer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Affine(Function<S, Object> probe, BiFunction<A, S, S> replacer) {
+        this.probe = probe;
+        this.replacer = replacer;
+
+        final Affine<Object, Object>[] self = newStageArray(1);
+        self[0] = (Affine<Object, Object>) this;
+        this.stages = self;
+    }
+
+    /**
+     * Create an affine optic that runs through several single optics.
+     *
+     * @param stages The single optics, from the outermost to the innermost. Must hold at least two.
+     */
+    private Affine(Affine<Object, Object>[] stages) {
+        this.probe = instance -> {
+            Object current = instance;
+            for (final Affine<Object, Object> stage : stages) {
+                current = stage.probe.apply(current);
+                if (current == ABSENT) {
+                    return ABSENT;
+                }
+            }
+
+            return current;
+        };
+        this.replacer = null;
+        this.stages = stages;
+    }
+
+    /**
+     * Create an affine optic focusing on the field of a lens only if it is not null.
+     *
+     * @param lens The lens to the nullable field.
+     * @return The affine optic.
+     * @param <S> The class being viewed.
+     * @param <A> The type of the field.
+     */
+    public static <S, A> Affine<S, A> nullable(SimpleLens<S, A> lens) {
+        return new Affine<>(instance -> {
+            final A item = lens.view(instance);
+            return item == null ? ABSENT : item;
+        }, lens::set);
+    }
+
+    /** Create an affine optic always focusing on the field of a lens. */
+    static <S, A> Affine<S, A> of(SimpleLens<S, A> lens) {
+        return new Affine<>(lens::view, lens::set);
+    }
+
+    /** Create an affine optic focusing on the case of a prism. */
+    static <S, A> Affine<S, A> of(Prism<S, A> prism) {
+        return new Affine<>(prism.probe(), (item, instance) -> prism.review(item));
+    }
+
+    /**
+     * Check if an instance has an item to focus on.
+     *
+     * @param instance Instance to check.
+     * @return Whether the optic focuses on an item of the instance.
+     */
+    public boolean matches(S instance) {
+        return probe.apply(instance) != ABSENT;
+    }
+
+    /**
+     * View the item of an instance, if it has one.
+     *
+     * @param instance Instance to peek the item of.
+     * @return The item, or nothing if the instance has none or it is null.
+     */
+    public Optional<A> preview(S instance) {
+        return Optional.ofNullable(previewOrElse(instance, null));
+    }
+
+    /**
+     * View the item of an instance, falling back to another item if it has none.
+     *
+     * @param instance Instance to peek the item of.
+     * @param other Item to return if the instance has none.
+     * @return The item, or the other item if the instance has none.
+     */
+    @SuppressWarnings("unchecked")
+    public A previewOrElse(S instance, A other) {
+        final Object item = probe.apply(instance);
+        return item == ABSENT ? other : (A) item;
+    }
+
+    /**
+     * Map over the item of an instance, if it has one.
+     *
+     * @param mapper Mapping function, which is a unary operator.
+     * @param instance Instance to map over.
+     * @return New instance with the mapped item, or the instance itself if it has none or the item is the same.
+     */
+    @SuppressWarnings("unchecked")
+    public S over(Function<A, A> mapper, S instance) {
+        if (stages.length > 1) {
+            final Object[] parents = new Object[stages.length];
+            final Object item = descend(instance, parents);
+            if (item == ABSENT) {
+                return instance;
+            }
+
+            final A mapped = mapper.apply((A) item);
+            return mapped == item ? instance : (S) rebuild(mapped, parents);
+        }
+
+        final Object item = probe.apply(instance);
+        if (item == ABSENT) {
+            return instance;
+        }
+
+        final A mapped = mapper.apply((A) item);
+        return mapped == item ? instance : replacer.apply(mapped, instance);
+    }
+
+    /**
+     * Set the item of an instance, if it has one.
+     *
+     * @param item New item.
+     * @param instance Instance to replace the item of.
+     * @return New instance with the item, or the instance itself if it has none.
+     */
+    @SuppressWarnings("unchecked")
+    public S set(A item, S instance) {
+        if (stages.length > 1) {
+            final Object[] parents = new Object[stages.length];
+            return descend(instance, parents) == ABSENT ? instance : (S) rebuild(item, parents);
+        }
+
+        return probe.apply(instance) == ABSENT ? instance : replacer.apply(item, instance);
+    }
+
+    /**
+     * Run another affine optic after this one, focusing on an item of the item of this optic.
+     * <p>
+     * The combined optic is flattened, so setting through a chain of any length probes each optic in it only once.
+     *
+     * @param next The next optic to run.
+     * @return The combined optic, focusing on an item only if both optics find one.
+     * @param <B> The item of the next optic.
+     */
+    public <B> Affine<S, B> andThen(Affine<A, B> next) {
+        final Affine<Object, Object>[] stages = newStageArray(this.stages.length + next.stages.length);
+        System.arraycopy(this.stages, 0, stages, 0, this.stages.length);
+        System.arraycopy(next.stages, 0, stages, this.stages.length, next.stages.length);
+
+        return new Affine<>(stages);
+    }
+
+    /**
+     * Run a prism after this optic, focusing on a case of the item of this optic.
+     *
+     * @param next The prism to run.
+     * @return The combined optic.
+     * @param <B> The item of the case of the prism.
+     */
+    public <B> Affine<S, B> andThen(Prism<A, B> next) {
+        return andThen(of(next));
+    }
+
+    /**
+     * Run a lens after this optic, focusing on a field of the item of this optic.
+     *
+     * @param next The lens to run.
+     * @return The combined optic.
+     * @param <B> The type of the field of the lens.
+     */
+    public <B> Affine<S, B> andThen(SimpleLens<A, B> next) {
+        return andThen(of(next));
+    }
+
+    /**
+     * Probe down the stages of this optic, remembering the instance each stage operates on.
+     *
+     * @param instance Instance to start from.
+     * @param parents Array to fill, as long as the stages, with the instance each stage operates on.
+     * @return The item at the end of the stages, or {@link #ABSENT} if any stage has none.
+     */
+    private Object descend(Object instance, Object[] parents) {
+        Object current = instance;
+        for (int i = 0; i < stages.length; ++i) {
+            parents[i] = current;
+            current = stages[i].probe.apply(current);
+            if (current == ABSENT) {
+                return ABSENT;
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Rebuild the instances remembered by {@link #descend} around a new item, from the innermost.
+     *
+     * @param item New item at the end of the stages.
+     * @param parents The instance each stage operates on.
+     * @return The new outermost instance.
+     */
+    private Object rebuild(Object item, Object[] parents) {
+        Object current = item;
+        for (int i = stages.length - 1; i >= 0; --i) {
+            current = stages[i].replacer.apply(current, parents[i]);
+        }
+
+        return current;
+    }
+
+    /** Create an empty array of stages, as generic arrays cannot be created directly. */
+    @SuppressWarnings("unchecked")
+    private static Affine<Object, Object>[] newStageArray(int length) {
+        return (Affine<Object, Object>[]) new Affine<?, ?>[length];
+    }
+}
@@ -0,0 +1,111 @@
+package net.nergi.lens4j;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * A concurrent cache holding a bounded number of entries.
+ * <p>
+ * Lookups are a single probe into a {@link ConcurrentHashMap}, and never take a lock. Eviction approximates LRU with
+ * the CLOCK algorithm: a hit marks its entry as referenced, and when the cache is over capacity, entries are taken in
+ * insertion order, with referenced ones given a second chance instead of being evicted.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+final class BoundedCache<K, V> {
+    /** The maximum number of entries kept. */
+    private final int capacity;
+
+    /** The cached entries. */
+    private final Map<K, Entry<V>> entries;
+
+    /** The keys of the cached entries, in the order the clock visits them. */
+    private final Queue<K> clock = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Create an empty cache.
+     *
+     * @param capacity The maximum number of entries to keep.
+     */
+    BoundedCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive.");
+        }
+
+        this.capacity = capacity;
+        this.entries = new ConcurrentHashMap<>(capacity);
+    }
+
+    /**
+     * Get a value from the cache, loading it if it is not present.
+     * <p>
+     * The value is loaded without holding any lock, so concurrent misses on the same key may each load it, but only the
+     * first one stored is ever returned.
+     *
+     * @param key The key of the value.
+     * @param loader Function loading the value for a key.
+     * @return The cached value.
+     */
+    V get(K key, Function<? super K, ? extends V> loader) {
+        final Entry<V> existing = entries.get(key);
+        if (existing != null) {
+            // Avoid writing to the entry on every hit.
+            if (!existing.referenced) {
+                existing.referenced = true;
+            }
+
+            return existing.value;
+        }
+
+        final Entry<V> loaded = new Entry<>(loader.apply(key));
+        final Entry<V> raced = entries.putIfAbsent(key, loaded);
+        if (raced != null) {
+            return raced.value;
+        }
+
+        clock.add(key);
+        evict();
+        return loaded.value;
+    }
+
+    /** The number of entries in the cache. */
+    int size() {
+        return entries.size();
+    }
+
+    /** Evict entries until the cache is within capacity. */
+    private void evict() {
+        while (entries.size() > capacity) {
+            final K key = clock.poll();
+            if (key == null) {
+                return;
+            }
+
+            final Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                continue;
+            }
+
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.add(key);
+            } else {
+                entries.remove(key, entry);
+            }
+        }
+    }
+
+    /** A cached value, with its CLOCK reference bit. */
+    private static final class Entry<V> {
+        private final V value;
+        private volatile boolean referenced = false;
+
+        Entry(V value) {
+            this.value = value;
+        }
+    }
+}
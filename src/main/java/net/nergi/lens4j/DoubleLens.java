@@ -0,0 +1,174 @@
+package net.nergi.lens4j;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A lens focusing on a <code>double</code> field, which never boxes it.
+ * <p>
+ * This is the <code>double</code> counterpart of {@link IntLens}. Use {@link #boxed} to get a lens of {@link Double}
+ * for the same field.
+ *
+ * @param <S> The class being viewed.
+ */
+public final class DoubleLens<S> {
+    /** The lenses leading to the object holding the field, from the outermost. Empty if the instance holds it. */
+    private final Lens<Object, Object, Object, Object>[] path;
+
+    /** The accessor function to the field. */
+    private final ToDoubleFunction<Object> accessor;
+
+    /** The function that generates new instances of the class given new contents of the field. */
+    private final Replacer<Object> replacer;
+
+    /** Whether some lens along the path, or the field itself, skips updates leaving it unchanged. */
+    private final boolean keepsUnchanged;
+
+    /**
+     * Create a <code>double</code> lens.
+     *
+     * @param accessor Function that provides a view into the field.
+     * @param replacer Function that generates a new instance of the class with the field set to the new value.
+     */
+    public DoubleLens(ToDoubleFunction<S> accessor, Replacer<S> replacer) {
+        this(accessor, replacer, false);
+    }
+
+    /**
+     * Create a <code>double</code> lens, which may skip updates leaving its field unchanged.
+     *
+     * @param accessor Function that provides a view into the field.
+     * @param replacer Function that generates a new instance of the class with the field set to the new value.
+     * @param keepsUnchanged Whether the replacer returns the instance itself for no-op updates.
+     */
+    @SuppressWarnings("unchecked")
+    DoubleLens(ToDoubleFunction<S> accessor, Replacer<S> replacer, boolean keepsUnchanged) {
+        this(Lens.newStageArray(0), (ToDoubleFunction<Object>) accessor, (Replacer<Object>) replacer, keepsUnchanged);
+    }
+
+    private DoubleLens(Lens<Object, Object, Object, Object>[] path, ToDoubleFunction<Object> accessor,
+                       Replacer<Object> replacer, boolean keepsUnchanged) {
+        this.path = path;
+        this.accessor = accessor;
+        this.replacer = replacer;
+        this.keepsUnchanged = keepsUnchanged;
+    }
+
+    /**
+     * Create a lens running along the path of a lens, then into the field of a <code>double</code> lens.
+     *
+     * @param outer The outer lens.
+     * @param inner The <code>double</code> lens, focusing on the field of the objects the outer lens focuses on.
+     * @return The composed lens.
+     * @param <S> The class being viewed.
+     */
+    static <S> DoubleLens<S> compose(SimpleLens<S, ?> outer, DoubleLens<?> inner) {
+        final Lens<Object, Object, Object, Object>[] head = outer.stages();
+        final Lens<Object, Object, Object, Object>[] path = Lens.newStageArray(head.length + inner.path.length);
+        System.arraycopy(head, 0, path, 0, head.length);
+        System.arraycopy(inner.path, 0, path, head.length, inner.path.length);
+
+        return new DoubleLens<>(path, inner.accessor, inner.replacer, outer.keepsUnchanged() || inner.keepsUnchanged);
+    }
+
+    /**
+     * View the field of an instance.
+     *
+     * @param instance The instance to view.
+     * @return The contents of the field.
+     */
+    public double viewDouble(S instance) {
+        Object current = instance;
+        for (final Lens<Object, Object, Object, Object> stage : path) {
+            current = stage.view(current);
+        }
+
+        return accessor.applyAsDouble(current);
+    }
+
+    /**
+     * Set the field of an instance.
+     *
+     * @param value The new value of the field.
+     * @param instance The instance to set the field of.
+     * @return A new instance with the field replaced.
+     */
+    @SuppressWarnings("unchecked")
+    public S setDouble(double value, S instance) {
+        return (S) setAt(0, value, instance);
+    }
+
+    /**
+     * Map over the field of an instance.
+     *
+     * @param mapper The function to apply to the field.
+     * @param instance The instance to map over.
+     * @return A new instance with the field mapped over.
+     */
+    @SuppressWarnings("unchecked")
+    public S overDouble(DoubleUnaryOperator mapper, S instance) {
+        return (S) overAt(0, mapper, instance);
+    }
+
+    /** Set the field below the object at a depth along the path, rebuilding it unless it can be kept. */
+    private Object setAt(int depth, double value, Object parent) {
+        if (depth == path.length) {
+            return replacer.apply(value, parent);
+        }
+
+        final Lens<Object, Object, Object, Object> stage = path[depth];
+        final Object child = stage.view(parent);
+        final Object updated = setAt(depth + 1, value, child);
+        return keepsUnchanged && updated == child ? parent : stage.set(updated, parent);
+    }
+
+    /** Map over the field below the object at a depth along the path, rebuilding it unless it can be kept. */
+    private Object overAt(int depth, DoubleUnaryOperator mapper, Object parent) {
+        if (depth == path.length) {
+            return replacer.apply(mapper.applyAsDouble(accessor.applyAsDouble(parent)), parent);
+        }
+
+        final Lens<Object, Object, Object, Object> stage = path[depth];
+        final Object child = stage.view(parent);
+        final Object updated = overAt(depth + 1, mapper, child);
+        return keepsUnchanged && updated == child ? parent : stage.set(updated, parent);
+    }
+
+    /**
+     * Get an ordinary lens for the same field, which boxes it.
+     *
+     * @return A simple lens viewing and setting the field.
+     */
+    @SuppressWarnings("unchecked")
+    public SimpleLens<S, Double> boxed() {
+        final ToDoubleFunction<Object> get = accessor;
+        final Replacer<Object> set = replacer;
+        final SimpleLens<Object, Double> field = new SimpleLens<>(get::applyAsDouble, set::apply,
+            (mapper, instance) -> set.apply(mapper.apply(get.applyAsDouble(instance)), instance), keepsUnchanged);
+        if (path.length == 0) {
+            return (SimpleLens<S, Double>) (SimpleLens<?, ?>) field;
+        }
+
+        final Lens<Object, Object, Object, Object>[] stages = Arrays.copyOf(path, path.length + 1);
+        stages[path.length] = (Lens<Object, Object, Object, Object>) (Lens<?, ?, ?, ?>) field;
+        return new SimpleLens<>(new LensPath(stages));
+    }
+
+    /**
+     * Generates new instances of a class given new contents of a <code>double</code> field.
+     *
+     * @param <S> The class being replaced.
+     */
+    @FunctionalInterface
+    public interface Replacer<S> {
+        /**
+         * Create a new instance with the field replaced.
+         *
+         * @param value The new value of the field.
+         * @param instance The instance to replace the field of.
+         * @return A new instance with the field set to the value.
+         */
+        S apply(double value, S instance);
+    }
+}
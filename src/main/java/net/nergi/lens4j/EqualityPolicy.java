@@ -0,0 +1,43 @@
+package net.nergi.lens4j;
+
+import java.util.Objects;
+
+/**
+ * How a lens decides that an update would not change a field, so the original instance can be returned as-is.
+ *
+ * @see SimpleLens#withEquality
+ */
+public enum EqualityPolicy {
+    /** Always rebuild the instance, even if the new value is the same as the old one. */
+    NONE {
+        @Override
+        boolean same(Object oldValue, Object newValue) {
+            return false;
+        }
+    },
+
+    /** Keep the instance if the new value is the same object as the old one. */
+    IDENTITY {
+        @Override
+        boolean same(Object oldValue, Object newValue) {
+            return oldValue == newValue;
+        }
+    },
+
+    /** Keep the instance if the new value is {@link Object#equals equal} to the old one. */
+    EQUALS {
+        @Override
+        boolean same(Object oldValue, Object newValue) {
+            return Objects.equals(oldValue, newValue);
+        }
+    };
+
+    /**
+     * Check if replacing a field with a new value would leave it unchanged.
+     *
+     * @param oldValue The current value of the field.
+     * @param newValue The new value of the field.
+     * @return True if the field would be unchanged under this policy.
+     */
+    abstract boolean same(Object oldValue, Object newValue);
+}
@@ -0,0 +1,24 @@
+package net.nergi.lens4j;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record for lens generation by the <code>lens4j-processor</code> annotation processor.
+ * <p>
+ * For a record <code>Person</code>, the processor generates a class <code>PersonLenses</code> in the same package,
+ * holding a <code>static final {@link SimpleLens}</code> constant for each component, named after the component in
+ * upper snake case. The generated lenses call the accessors and canonical constructor directly, so they need no
+ * reflection or lambda bootstrapping when they are first used.
+ * <p>
+ * Records nested in other classes get a class named after all of their enclosing classes, such as
+ * <code>Outer_PersonLenses</code>. Generic records are not supported, as their lenses cannot be constants.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateLenses {
+}
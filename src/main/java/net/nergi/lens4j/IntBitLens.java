@@ -0,0 +1,121 @@
+package net.nergi.lens4j;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A lens focusing on a range of bits inside an <code>int</code>, for fields packed into a single word.
+ * <p>
+ * The range starts at bit <code>offset</code>, counting from the least significant bit, and is <code>width</code>
+ * bits wide. Signed ranges are sign-extended when viewed, and unsigned ones are zero-extended. Values set into the
+ * range are truncated to its width, and every bit outside of it is left as it was. Everything is done with shifts and
+ * masks, so nothing is ever allocated.
+ * <p>
+ * Bit ranges inside a field of an object are reached with {@link IntLens#andThen(IntBitLens)}.
+ */
+public final class IntBitLens {
+    /** The number of bits in the word. */
+    private static final int WORD_SIZE = Integer.SIZE;
+
+    /** The position of the lowest bit of the range. */
+    private final int offset;
+
+    /** The number of bits in the range. */
+    private final int width;
+
+    /** Whether the range holds a two's complement signed number. */
+    private final boolean signed;
+
+    /** The bits of the range, in place within the word. */
+    private final int mask;
+
+    /**
+     * Create a lens focusing on an unsigned range of bits.
+     *
+     * @param offset The position of the lowest bit of the range.
+     * @param width The number of bits in the range.
+     * @throws IllegalArgumentException If the range does not fit in an <code>int</code>.
+     */
+    public IntBitLens(int offset, int width) {
+        this(offset, width, false);
+    }
+
+    /**
+     * Create a lens focusing on a range of bits.
+     *
+     * @param offset The position of the lowest bit of the range.
+     * @param width The number of bits in the range.
+     * @param signed Whether the range holds a signed number.
+     * @throws IllegalArgumentException If the range does not fit in an <code>int</code>.
+     */
+    public IntBitLens(int offset, int width, boolean signed) {
+        if (offset < 0 || width <= 0 || width > WORD_SIZE - offset) {
+            throw new IllegalArgumentException("Bit range " + offset + " + " + width + " does not fit in an int.");
+        }
+
+        this.offset = offset;
+        this.width = width;
+        this.signed = signed;
+        this.mask = (-1 >>> (WORD_SIZE - width)) << offset;
+    }
+
+    /**
+     * View the range of bits in a word.
+     *
+     * @param word The word to view.
+     * @return The number held in the range.
+     */
+    public int view(int word) {
+        return signed
+            ? (word << (WORD_SIZE - offset - width)) >> (WORD_SIZE - width)
+            : (word & mask) >>> offset;
+    }
+
+    /**
+     * Set the range of bits in a word.
+     *
+     * @param value The new number to hold in the range, truncated to its width.
+     * @param word The word to set the range of.
+     * @return The word with the range replaced.
+     */
+    public int set(int value, int word) {
+        return (word & ~mask) | ((value << offset) & mask);
+    }
+
+    /**
+     * Map over the range of bits in a word.
+     *
+     * @param mapper The function to apply to the number held in the range.
+     * @param word The word to map over.
+     * @return The word with the range mapped over.
+     */
+    public int over(IntUnaryOperator mapper, int word) {
+        return set(mapper.applyAsInt(view(word)), word);
+    }
+
+    /**
+     * Get the position of the lowest bit of the range.
+     *
+     * @return The offset of the range.
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * Get the number of bits in the range.
+     *
+     * @return The width of the range.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Check if the range holds a signed number.
+     *
+     * @return True if the range is sign-extended when viewed.
+     */
+    public boolean signed() {
+        return signed;
+    }
+}
@@ -1,5 +1,6 @@
 package net.nergi.lens4j;
 
+import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -24,6 +25,15 @@ public sealed class Lens<S, T, A, B> permits SimpleLens {
     /** The function that generates new instances of a class given "new" contents of a field. */
     private final BiFunction<B, S, T> replacer;
 
+    /** The function that maps over a field of a class, walking to the field only once. */
+    private final BiFunction<Function<A, B>, S, T> modifier;
+
+    /** The leaf lenses this lens is made of, from the outermost to the innermost. Just this lens if not composed. */
+    private final Lens<Object, Object, Object, Object>[] stages;
+
+    /** Whether this lens skips updates leaving its field unchanged, from {@link SimpleLens#withEquality}. */
+    private final boolean keepsUnchanged;
+
     /**
      * Create a lens from an accessor and builder (dubbed "replacer") for new instances of the class with the field set
      * to some given objects.
@@ -38,8 +48,56 @@ public sealed class Lens<S, T, A, B> permits SimpleLens {
      * @param replacer Function that generates a new instance of the class with the field set to the new value.
      */
     public Lens(Function<S, A> accessor, BiFunction<B, S, T> replacer) {
+        this(accessor, replacer, (f, s) -> replacer.apply(f.apply(accessor.apply(s)), s));
+    }
+
+    /**
+     * Create a lens from an accessor, replacer and a fused "modifier" that maps over the field in one go.
+     * <p>
+     * This is useful when mapping over a field can be done more cheaply than viewing it and then replacing it, such as
+     * when the field is deep inside the class. Along with the laws for the accessor and replacer, the modifier must
+     * satisfy <code>modifier.apply(f, s) == replacer.apply(f.apply(accessor.apply(s)), s)</code>.
+     *
+     * @param accessor Function that provides a view into a field.
+     * @param replacer Function that generates a new instance of the class with the field set to the new value.
+     * @param modifier Function that generates a new instance of the class with the field mapped over.
+     */
+    public Lens(Function<S, A> accessor, BiFunction<B, S, T> replacer, BiFunction<Function<A, B>, S, T> modifier) {
+        this(accessor, replacer, modifier, false);
+    }
+
+    /**
+     * Create a lens from an accessor, replacer and modifier, which may skip updates leaving its field unchanged.
+     *
+     * @param accessor Function that provides a view into a field.
+     * @param replacer Function that generates a new instance of the class with the field set to the new value.
+     * @param modifier Function that generates a new instance of the class with the field mapped over.
+     * @param keepsUnchanged Whether the replacer and modifier return the instance itself for no-op updates.
+     */
+    @SuppressWarnings("unchecked")
+    Lens(Function<S, A> accessor, BiFunction<B, S, T> replacer, BiFunction<Function<A, B>, S, T> modifier,
+         boolean keepsUnchanged) {
         this.accessor = accessor;
         this.replacer = replacer;
+        this.modifier = modifier;
+        this.keepsUnchanged = keepsUnchanged;
+
+        final Lens<Object, Object, Object, Object>[] self = newStageArray(1);
+        self[0] = (Lens<Object, Object, Object, Object>) this;
+        this.stages = self;
+    }
+
+    /**
+     * Create a lens that runs along a flattened path of other lenses.
+     *
+     * @param path The path to run along.
+     */
+    Lens(LensPath path) {
+        this.accessor = path::view;
+        this.replacer = path::set;
+        this.modifier = path::over;
+        this.stages = path.stages();
+        this.keepsUnchanged = path.keepsUnchanged();
     }
 
     /**
@@ -60,7 +118,7 @@ public sealed class Lens<S, T, A, B> permits SimpleLens {
      * @return New instance of class with mapped field contents.
      */
     public T over(Function<A, B> mapper, S instance) {
-        return replacer.apply(mapper.apply(view(instance)), instance);
+        return modifier.apply(mapper, instance);
     }
 
     /**
@@ -79,6 +137,10 @@ public sealed class Lens<S, T, A, B> permits SimpleLens {
      * <p>
      * This is the bread-and-butter for what makes lenses extremely useful. They can be composed together as if they
      * were functions.
+     * <p>
+     * The combined lens is flattened into a single path of the lenses it is made of, so setting through a chain of any
+     * depth runs each accessor at most once. The modifiers of both lenses are composed too, so mapping over the
+     * combined lens walks to the field only once.
      *
      * @param next The next lens to run.
      * @return The combined lens formed by composing the two lenses together, this lens before the next.
@@ -86,6 +148,119 @@ public sealed class Lens<S, T, A, B> permits SimpleLens {
      * @param <D> Next projected field type.
      */
     public <C, D> Lens<S, T, C, D> andThen(Lens<A, B, C, D> next) {
-        return new Lens<>(s -> next.view(view(s)), (d, s) -> set(next.set(d, view(s)), s));
+        return new Lens<>(LensPath.compose(this, next));
+    }
+
+    /**
+     * Combine two lenses on disjoint fields of the same class into one lens, focusing on both fields as a pair.
+     * <p>
+     * Setting through the combined lens replaces both fields in one go. If both lenses come from
+     * {@link Lenses#forRecord} for the same record (or run along the same path of lenses before doing so), the record
+     * is rebuilt with a single call to its canonical constructor, rather than once per field. Otherwise, the fields are
+     * set one after the other.
+     *
+     * @param first The lens for the first field.
+     * @param second The lens for the second field.
+     * @return The combined lens.
+     * @param <S> The class being viewed.
+     * @param <A> The type of the first field.
+     * @param <B> The type of the second field.
+     * @throws IllegalArgumentException If both lenses are known to focus on the same record component.
+     */
+    public static <S, A, B> SimpleLens<S, Pair<A, B>> zip(SimpleLens<S, A> first, SimpleLens<S, B> second) {
+        final ZippedLens zipped = ZippedLens.of(new Lens<?, ?, ?, ?>[] {first, second});
+        return new SimpleLens<>(s -> new Pair<>(first.view(s), second.view(s)),
+            (p, s) -> zipped.set(new Object[] {p.first(), p.second()}, s));
+    }
+
+    /**
+     * Combine three lenses on disjoint fields of the same class into one lens, focusing on all three fields as a
+     * triple.
+     *
+     * @see #zip(SimpleLens, SimpleLens)
+     */
+    public static <S, A, B, C> SimpleLens<S, Triple<A, B, C>> zip(SimpleLens<S, A> first, SimpleLens<S, B> second,
+                                                                  SimpleLens<S, C> third) {
+        final ZippedLens zipped = ZippedLens.of(new Lens<?, ?, ?, ?>[] {first, second, third});
+        return new SimpleLens<>(s -> new Triple<>(first.view(s), second.view(s), third.view(s)),
+            (t, s) -> zipped.set(new Object[] {t.first(), t.second(), t.third()}, s));
+    }
+
+    /**
+     * Combine any number of lenses on disjoint fields of the same class into one lens, focusing on all of the fields as
+     * a list.
+     * <p>
+     * The list viewed is unmodifiable, and lists being set must have exactly one value per lens.
+     *
+     * @see #zip(SimpleLens, SimpleLens)
+     */
+    @SafeVarargs
+    public static <S, A> SimpleLens<S, List<A>> zipAll(SimpleLens<S, ? extends A>... lenses) {
+        if (lenses.length == 0) {
+            throw new IllegalArgumentException("At least one lens must be zipped.");
+        }
+
+        final Lens<?, ?, ?, ?>[] copy = new Lens<?, ?, ?, ?>[lenses.length];
+        for (int i = 0; i < lenses.length; ++i) {
+            copy[i] = lenses[i];
+        }
+
+        final ZippedLens zipped = ZippedLens.of(copy);
+        return new SimpleLens<>(zipped::viewAll, (values, s) -> {
+            if (values.size() != lenses.length) {
+                throw new IllegalArgumentException(
+                    "Expected " + lenses.length + " values to set, but got " + values.size() + ".");
+            }
+
+            return zipped.set(values.toArray(), s);
+        });
+    }
+
+    /**
+     * Compile this lens into a tree of method handles.
+     * <p>
+     * Plain lenses dispatch through their functions on every operation, and once an application uses enough lenses,
+     * the JVM stops inlining those calls. A compiled lens instead runs a single method handle tree per operation,
+     * which covers every lens it is composed of and can be compiled by the JVM as a whole.
+     * <p>
+     * Compiling is relatively expensive, so it is best done once for lenses used on hot paths. A compiled lens may be
+     * composed further, and compiling the result reuses the trees already built.
+     *
+     * @return A lens that behaves the same as this one, backed by method handles.
+     */
+    public Lens<S, T, A, B> compile() {
+        final LensHandles handles = LensHandles.compile(this);
+        return new Lens<>(handles.accessor(), handles.replacer(), handles.modifier(), keepsUnchanged);
+    }
+
+    /** The accessor of this lens. */
+    Function<S, A> accessor() {
+        return accessor;
+    }
+
+    /** The replacer of this lens. */
+    BiFunction<B, S, T> replacer() {
+        return replacer;
+    }
+
+    /** The modifier of this lens. */
+    BiFunction<Function<A, B>, S, T> modifier() {
+        return modifier;
+    }
+
+    /** The leaf lenses this lens is made of. The returned array must not be modified. */
+    Lens<Object, Object, Object, Object>[] stages() {
+        return stages;
+    }
+
+    /** Whether this lens, or any lens it is composed of, skips updates leaving its field unchanged. */
+    boolean keepsUnchanged() {
+        return keepsUnchanged;
+    }
+
+    /** Create an empty array of stages, as generic arrays cannot be created directly. */
+    @SuppressWarnings("unchecked")
+    static Lens<Object, Object, Object, Object>[] newStageArray(int length) {
+        return (Lens<Object, Object, Object, Object>[]) new Lens<?, ?, ?, ?>[length];
     }
 }
@@ -0,0 +1,337 @@
+package net.nergi.lens4j;
+
+import static net.nergi.lens4j.gen.ClassWriter.ACC_FINAL;
+import static net.nergi.lens4j.gen.ClassWriter.ACC_PRIVATE;
+import static net.nergi.lens4j.gen.ClassWriter.ACC_PUBLIC;
+import static net.nergi.lens4j.gen.ClassWriter.ACC_STATIC;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import net.nergi.lens4j.gen.ClassWriter;
+
+/**
+ * The method handle form of a lens, used by {@link Lens#compile}.
+ * <p>
+ * Each operation of a lens is turned into a single method handle tree. For a composed lens, the trees of every lens in
+ * the path are combined with {@link MethodHandles#filterReturnValue}, {@link MethodHandles#filterArguments} and
+ * {@link MethodHandles#foldArguments}, so one exact invocation runs the whole path.
+ * <p>
+ * The JIT only inlines a method handle tree if the handle is a constant, which an instance field never is. So each
+ * tree is put in a static final field of its own hidden class, and the lens calls an instance of that class. The
+ * class file is written once per arity with {@link ClassWriter}, and its body is equivalent to the following:
+ * <pre>{@code
+ * final class Lens4J$CompiledFunction implements Function<Object, Object>, LensHandles.Compiled {
+ *     private static final MethodHandle HANDLE = (MethodHandle) LensHandles.classData(MethodHandles.lookup(), 0);
+ *     private static final MethodHandle INVOKER = (MethodHandle) LensHandles.classData(MethodHandles.lookup(), 1);
+ *     private static final Object TAG = LensHandles.classData(MethodHandles.lookup(), 2);
+ *
+ *     public Object apply(Object instance) {
+ *         return (Object) INVOKER.invokeExact(instance);
+ *     }
+ *
+ *     public MethodHandle handle() {
+ *         return HANDLE;
+ *     }
+ *
+ *     public Object tag() {
+ *         return TAG;
+ *     }
+ * }
+ * }</pre>
+ * The invoker is the handle with whatever it throws passed through {@link #rethrow}. Calling the lens then costs a
+ * single dispatch into the hidden class, after which the whole tree is inlined: the functions bound at its leaves are
+ * constants too, so they are inlined as well, and the trees from {@link Lenses#forRecord} go straight to the record
+ * accessors and canonical constructor.
+ * <p>
+ * All handles are erased: viewing is <code>(Object)Object</code>, setting is <code>(Object, Object)Object</code>
+ * taking the new value then the instance, and mapping is <code>(Object, Object)Object</code> taking the mapping
+ * function then the instance.
+ */
+final class LensHandles {
+    /** {@link Function#apply}, as <code>(Function, Object)Object</code>. */
+    private static final MethodHandle FUNCTION_APPLY;
+
+    /** {@link BiFunction#apply}, as <code>(BiFunction, Object, Object)Object</code>. */
+    private static final MethodHandle BI_FUNCTION_APPLY;
+
+    /** {@link #isSame}, as <code>(Object, Object)boolean</code>. */
+    private static final MethodHandle IS_SAME;
+
+    /** {@link #rethrow}, throwing what it returns, as <code>(Throwable)Object</code>. */
+    private static final MethodHandle RETHROW;
+
+    /** The class file of the hidden classes running view handles, as {@link Function Functions}. */
+    private static final byte[] FUNCTION_TEMPLATE = template("Lens4J$CompiledFunction", "java/util/function/Function",
+        "(Ljava/lang/Object;)Ljava/lang/Object;");
+
+    /** The class file of the hidden classes running set and map handles, as {@link BiFunction BiFunctions}. */
+    private static final byte[] BI_FUNCTION_TEMPLATE = template("Lens4J$CompiledBiFunction",
+        "java/util/function/BiFunction", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
+
+    static {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            FUNCTION_APPLY = lookup.findVirtual(Function.class, "apply",
+                MethodType.methodType(Object.class, Object.class));
+            BI_FUNCTION_APPLY = lookup.findVirtual(BiFunction.class, "apply",
+                MethodType.methodType(Object.class, Object.class, Object.class));
+            IS_SAME = MethodHandles.lookup().findStatic(LensHandles.class, "isSame",
+                MethodType.methodType(boolean.class, Object.class, Object.class));
+            RETHROW = MethodHandles.filterReturnValue(
+                MethodHandles.lookup().findStatic(LensHandles.class, "rethrow",
+                    MethodType.methodType(RuntimeException.class, Throwable.class)),
+                MethodHandles.throwException(Object.class, RuntimeException.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The compiled view handle. */
+    private final MethodHandle view;
+
+    /** The compiled set handle. */
+    private final MethodHandle set;
+
+    /** The compiled map handle. */
+    private final MethodHandle over;
+
+    private LensHandles(MethodHandle view, MethodHandle set, MethodHandle over) {
+        this.view = view;
+        this.set = set;
+        this.over = over;
+    }
+
+    /**
+     * Compile a lens into method handle trees.
+     *
+     * @param lens The lens to compile.
+     * @return The compiled handles of the lens.
+     */
+    static LensHandles compile(Lens<?, ?, ?, ?> lens) {
+        final Lens<Object, Object, Object, Object>[] stages = lens.stages();
+        final int last = stages.length - 1;
+
+        MethodHandle view = viewOf(stages[last]);
+        MethodHandle set = setOf(stages[last]);
+        MethodHandle over = overOf(stages[last]);
+
+        // Wrap each outer stage around the handles of the stages within it.
+        for (int i = last - 1; i >= 0; --i) {
+            final MethodHandle stageView = viewOf(stages[i]);
+            final MethodHandle rebuild = lens.keepsUnchanged()
+                ? rebuildUnlessSame(setOf(stages[i]))
+                : MethodHandles.dropArguments(setOf(stages[i]), 1, Object.class);
+
+            // (v, s) -> stage.set(inner(v, stage.view(s)), s), for both setting and mapping, keeping s if the inner
+            // lens gave back the same child and the lens skips no-op updates.
+            set = wrap(set, stageView, rebuild);
+            over = wrap(over, stageView, rebuild);
+
+            // s -> inner(stage.view(s))
+            view = MethodHandles.filterReturnValue(stageView, view);
+        }
+
+        return new LensHandles(view, set, over);
+    }
+
+    /**
+     * Build <code>(c', c, s) -> c' == c ? s : set(c', s)</code>, which only rebuilds a parent if its child changed.
+     */
+    private static MethodHandle rebuildUnlessSame(MethodHandle set) {
+        final MethodHandle test = MethodHandles.dropArguments(IS_SAME, 2, Object.class);
+        final MethodHandle keep =
+            MethodHandles.dropArguments(MethodHandles.identity(Object.class), 0, Object.class, Object.class);
+
+        return MethodHandles.guardWithTest(test, keep, MethodHandles.dropArguments(set, 1, Object.class));
+    }
+
+    /** Wrap an inner set or map handle in a stage, as <code>(v, s) -> rebuild(inner(v, c), c, s)</code>. */
+    private static MethodHandle wrap(MethodHandle inner, MethodHandle stageView, MethodHandle rebuild) {
+        // (c, v) -> inner(v, c)
+        final MethodHandle swapped = MethodHandles.permuteArguments(inner, inner.type(), 1, 0);
+
+        // (c, v, s) -> rebuild(inner(v, c), c, s)
+        final MethodHandle withChild = MethodHandles.foldArguments(
+            MethodHandles.dropArguments(rebuild, 2, Object.class), swapped);
+
+        // (v, s) -> withChild(stage.view(s), v, s)
+        return MethodHandles.foldArguments(withChild, MethodHandles.dropArguments(stageView, 0, Object.class));
+    }
+
+    /** Whether two objects are the same instance. */
+    private static boolean isSame(Object first, Object second) {
+        return first == second;
+    }
+
+    /**
+     * Create the handles of a lens directly from its view and set handles.
+     * <p>
+     * The map handle is derived from the two, as <code>(f, s) -> set(f.apply(view(s)), s)</code>.
+     *
+     * @param view The view handle, of type <code>(Object)Object</code>.
+     * @param set The set handle, of type <code>(Object, Object)Object</code>.
+     * @return The handles of the lens.
+     */
+    static LensHandles of(MethodHandle view, MethodHandle set) {
+        final MethodHandle apply = FUNCTION_APPLY.asType(set.type());
+        final MethodHandle mapped = MethodHandles.filterArguments(apply, 1, view);
+        final MethodHandle rebuild = MethodHandles.dropArguments(set, 1, Object.class);
+        final MethodHandle over = MethodHandles.foldArguments(rebuild, mapped);
+
+        return new LensHandles(view, set, over);
+    }
+
+    /** The view handle of a single lens, reusing its tree if it was compiled. */
+    private static MethodHandle viewOf(Lens<Object, Object, Object, Object> stage) {
+        return stage.accessor() instanceof Compiled compiled
+            ? compiled.handle()
+            : FUNCTION_APPLY.bindTo(stage.accessor());
+    }
+
+    /** The set handle of a single lens, reusing its tree if it was compiled. */
+    private static MethodHandle setOf(Lens<Object, Object, Object, Object> stage) {
+        return stage.replacer() instanceof Compiled compiled
+            ? compiled.handle()
+            : BI_FUNCTION_APPLY.bindTo(stage.replacer());
+    }
+
+    /** The map handle of a single lens, reusing its tree if it was compiled. */
+    private static MethodHandle overOf(Lens<Object, Object, Object, Object> stage) {
+        final Object modifier = stage.modifier();
+        return modifier instanceof Compiled compiled
+            ? compiled.handle()
+            : BI_FUNCTION_APPLY.bindTo(modifier);
+    }
+
+    /** The compiled accessor, as a function. */
+    @SuppressWarnings("unchecked")
+    <S, A> Function<S, A> accessor() {
+        return (Function<S, A>) define(FUNCTION_TEMPLATE, view, null);
+    }
+
+    /** The compiled replacer, as a function. */
+    <S, T, B> BiFunction<B, S, T> replacer() {
+        return replacer(null);
+    }
+
+    /** The compiled replacer, as a function remembering what it was compiled from. */
+    @SuppressWarnings("unchecked")
+    <S, T, B> BiFunction<B, S, T> replacer(Object tag) {
+        return (BiFunction<B, S, T>) define(BI_FUNCTION_TEMPLATE, set, tag);
+    }
+
+    /** The compiled modifier, as a function. */
+    @SuppressWarnings("unchecked")
+    <S, T, A, B> BiFunction<Function<A, B>, S, T> modifier() {
+        return (BiFunction<Function<A, B>, S, T>) define(BI_FUNCTION_TEMPLATE, over, null);
+    }
+
+    /** Define a hidden class from a template holding a handle, and create an instance of it. */
+    private static Object define(byte[] template, MethodHandle handle, Object tag) {
+        // (args...) -> handle(args...), passing anything thrown through rethrow.
+        final MethodHandle invoker = MethodHandles.catchException(handle, Throwable.class,
+            MethodHandles.dropArguments(RETHROW, 1, handle.type().parameterList()));
+
+        try {
+            final MethodHandles.Lookup hidden = MethodHandles.lookup()
+                .defineHiddenClassWithClassData(template, Arrays.asList(handle, invoker, tag), true);
+            return hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Write the class file of a template, as described in the documentation of this class.
+     *
+     * @param simpleName The simple name of the template, within the package of this class.
+     * @param function The internal name of the functional interface it implements.
+     * @param descriptor The erased descriptor of the method of the functional interface.
+     * @return The class file.
+     */
+    private static byte[] template(String simpleName, String function, String descriptor) {
+        final String name = "net/nergi/lens4j/" + simpleName;
+        final String handleType = "Ljava/lang/invoke/MethodHandle;";
+        final String compiled = "net/nergi/lens4j/LensHandles$Compiled";
+
+        final ClassWriter writer = new ClassWriter(name, function, compiled);
+        writer.addField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "HANDLE", handleType);
+        writer.addField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "INVOKER", handleType);
+        writer.addField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "TAG", "Ljava/lang/Object;");
+        writer.addConstructor();
+
+        // Load each field from the class data.
+        final ClassWriter.Code init = new ClassWriter.Code(writer, 0);
+        loadClassData(init, 0).checkcast("java/lang/invoke/MethodHandle").putstatic(name, "HANDLE", handleType);
+        loadClassData(init, 1).checkcast("java/lang/invoke/MethodHandle").putstatic(name, "INVOKER", handleType);
+        loadClassData(init, 2).putstatic(name, "TAG", "Ljava/lang/Object;");
+        writer.addMethod(ACC_STATIC, "<clinit>", "()V", init.returnVoid());
+
+        // apply(args...), passing every argument straight to the invoker.
+        final int arity = MethodType.fromMethodDescriptorString(descriptor, null).parameterCount();
+        final ClassWriter.Code apply = new ClassWriter.Code(writer, arity + 1)
+            .getstatic(name, "INVOKER", handleType);
+        for (int i = 1; i <= arity; ++i) {
+            apply.aload(i);
+        }
+        writer.addMethod(ACC_PUBLIC, "apply", descriptor,
+            apply.invokevirtual("java/lang/invoke/MethodHandle", "invokeExact", descriptor).areturn());
+
+        writer.addMethod(ACC_PUBLIC, "handle", "()" + handleType,
+            new ClassWriter.Code(writer, 1).getstatic(name, "HANDLE", handleType).areturn());
+        writer.addMethod(ACC_PUBLIC, "tag", "()Ljava/lang/Object;",
+            new ClassWriter.Code(writer, 1).getstatic(name, "TAG", "Ljava/lang/Object;").areturn());
+
+        return writer.toByteArray();
+    }
+
+    /** Push an item of the class data of a template, as <code>classData(MethodHandles.lookup(), i)</code> would. */
+    private static ClassWriter.Code loadClassData(ClassWriter.Code code, int index) {
+        return code
+            .invokestatic("java/lang/invoke/MethodHandles", "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;")
+            .iconst(index)
+            .invokestatic("net/nergi/lens4j/LensHandles", "classData",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;I)Ljava/lang/Object;");
+    }
+
+    /**
+     * Get an item of the class data of a hidden class defined from a template, while initialising it.
+     *
+     * @param lookup The lookup of the hidden class.
+     * @param index The index of the item: 0 for the handle, 1 for the invoker, and 2 for the tag.
+     * @return The item.
+     */
+    static Object classData(MethodHandles.Lookup lookup, int index) {
+        try {
+            return MethodHandles.classData(lookup, "_", List.class).get(index);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Templates of compiled handles cannot be used directly.", e);
+        }
+    }
+
+    /** Rethrow whatever a handle threw, which can only be unchecked unless a function threw sneakily. */
+    static RuntimeException rethrow(Throwable thrown) {
+        if (thrown instanceof RuntimeException e) {
+            return e;
+        } else if (thrown instanceof Error e) {
+            throw e;
+        }
+
+        return new UndeclaredThrowableException(thrown);
+    }
+
+    /** A function running a compiled handle, held in a static final field of its hidden class. */
+    interface Compiled {
+        /** The handle the function runs. */
+        MethodHandle handle();
+
+        /** What the handle was compiled from, or null. */
+        Object tag();
+    }
+}
@@ -0,0 +1,137 @@
+package net.nergi.lens4j;
+
+import java.util.function.Function;
+
+/**
+ * The flattened form of a composed lens.
+ * <p>
+ * Rather than nesting the accessors and replacers of every lens in a chain inside each other (which re-runs the
+ * accessors of the outer lenses once per level on every update), a path keeps the leaf lenses in a flat array. Updates
+ * then run as one pass down the path capturing every intermediate object, and one pass back up rebuilding them.
+ * <p>
+ * If any lens along the path skips no-op updates, from {@link SimpleLens#withEquality}, a lens handing back the very
+ * child object it was given means nothing changed below it, so its parent is kept as-is instead of being rebuilt. This
+ * lets such paths return the original root. Other paths rebuild every object along the way, as plain lenses do.
+ */
+final class LensPath {
+    /** The leaf lenses making up this path, from the outermost to the innermost. */
+    private final Lens<Object, Object, Object, Object>[] stages;
+
+    /** Whether parents are kept when their child comes back unchanged. */
+    private final boolean keepsUnchanged;
+
+    /**
+     * Create a path from an array of leaf lenses.
+     *
+     * @param stages Leaf lenses, from the outermost to the innermost. Must not be empty.
+     */
+    LensPath(Lens<Object, Object, Object, Object>[] stages) {
+        this.stages = stages;
+
+        boolean keepsUnchanged = false;
+        for (final Lens<Object, Object, Object, Object> stage : stages) {
+            keepsUnchanged |= stage.keepsUnchanged();
+        }
+        this.keepsUnchanged = keepsUnchanged;
+    }
+
+    /**
+     * Create a path that runs through the stages of one lens and then the stages of another.
+     *
+     * @param first The outer lens.
+     * @param next The inner lens.
+     * @return The path formed by concatenating the stages of both lenses.
+     */
+    static LensPath compose(Lens<?, ?, ?, ?> first, Lens<?, ?, ?, ?> next) {
+        final Lens<Object, Object, Object, Object>[] outer = first.stages();
+        final Lens<Object, Object, Object, Object>[] inner = next.stages();
+
+        final Lens<Object, Object, Object, Object>[] stages = Lens.newStageArray(outer.length + inner.length);
+        System.arraycopy(outer, 0, stages, 0, outer.length);
+        System.arraycopy(inner, 0, stages, outer.length, inner.length);
+
+        return new LensPath(stages);
+    }
+
+    /** The leaf lenses making up this path. The returned array must not be modified. */
+    Lens<Object, Object, Object, Object>[] stages() {
+        return stages;
+    }
+
+    /** Whether any lens along this path skips updates leaving its field unchanged. */
+    boolean keepsUnchanged() {
+        return keepsUnchanged;
+    }
+
+    /**
+     * View the field at the end of this path.
+     *
+     * @param root Instance to start from.
+     * @return Field contents at the end of the path.
+     */
+    @SuppressWarnings("unchecked")
+    <S, A> A view(S root) {
+        Object current = root;
+        for (final Lens<Object, Object, Object, Object> stage : stages) {
+            current = stage.view(current);
+        }
+
+        return (A) current;
+    }
+
+    /**
+     * Set the field at the end of this path, rebuilding every object along the way.
+     *
+     * @param value New value to give the field.
+     * @param root Instance to start from.
+     * @return New root instance with the replaced field contents.
+     */
+    @SuppressWarnings("unchecked")
+    <S, T, B> T set(B value, S root) {
+        final int last = stages.length - 1;
+
+        // Downward pass: parents[i] is the object stage i operates on.
+        final Object[] parents = new Object[stages.length];
+        parents[0] = root;
+        for (int i = 1; i <= last; ++i) {
+            parents[i] = stages[i - 1].view(parents[i - 1]);
+        }
+
+        // Upward pass: rebuild each parent with its new child, unless the child is unchanged and that is allowed.
+        Object current = stages[last].set(value, parents[last]);
+        for (int i = last - 1; i >= 0; --i) {
+            current = keepsUnchanged && current == parents[i + 1] ? parents[i] : stages[i].set(current, parents[i]);
+        }
+
+        return (T) current;
+    }
+
+    /**
+     * Map over the field at the end of this path, rebuilding every object along the way.
+     * <p>
+     * The innermost lens maps over its field with its own modifier, so the path is only walked once.
+     *
+     * @param mapper Mapping function.
+     * @param root Instance to start from.
+     * @return New root instance with the mapped field contents.
+     */
+    @SuppressWarnings("unchecked")
+    <S, T, A, B> T over(Function<A, B> mapper, S root) {
+        final int last = stages.length - 1;
+
+        // Downward pass: parents[i] is the object stage i operates on.
+        final Object[] parents = new Object[stages.length];
+        parents[0] = root;
+        for (int i = 1; i <= last; ++i) {
+            parents[i] = stages[i - 1].view(parents[i - 1]);
+        }
+
+        // Upward pass: map over the innermost field, then rebuild each parent with its new child.
+        Object current = stages[last].over((Function<Object, Object>) mapper, parents[last]);
+        for (int i = last - 1; i >= 0; --i) {
+            current = keepsUnchanged && current == parents[i + 1] ? parents[i] : stages[i].set(current, parents[i]);
+        }
+
+        return (T) current;
+    }
+}
@@ -0,0 +1,64 @@
+package net.nergi.lens4j;
+
+/**
+ * Factories for lenses that can be derived automatically.
+ */
+public final class Lenses {
+    /** The maximum number of path lenses kept in {@link #PATHS} for each root class. */
+    private static final int PATH_CACHE_CAPACITY = 256;
+
+    /** Lenses resolved from property paths, per root class and by path. */
+    private static final ClassValue<BoundedCache<String, SimpleLens<Object, Object>>> PATHS = new ClassValue<>() {
+        @Override
+        protected BoundedCache<String, SimpleLens<Object, Object>> computeValue(Class<?> type) {
+            return new BoundedCache<>(PATH_CACHE_CAPACITY);
+        }
+    };
+
+    private Lenses() {
+        // This class cannot be instantiated.
+    }
+
+    /**
+     * Get a lens for a component of a record.
+     * <p>
+     * The accessor of the lens is the accessor of the component, and the replacer calls the canonical constructor of
+     * the record with every other component taken from the old instance. This saves writing out replacers like
+     * <code>(i, tb) -> new TestBox(i, tb.content2())</code> by hand.
+     * <p>
+     * The accessors and canonical constructor are resolved once per record class and cached, so both getting the lens
+     * and using it are cheap after the first time. The lenses are backed by method handles, so they also
+     * {@link Lens#compile compile} down to direct accessor and constructor calls.
+     *
+     * @param type The record class.
+     * @param component The name of the component to focus on.
+     * @return A lens focusing on the component.
+     * @param <R> The type of the record.
+     * @param <F> The type of the component.
+     * @throws IllegalArgumentException If there is no such component, or the record cannot be accessed.
+     */
+    public static <R extends Record, F> SimpleLens<R, F> forRecord(Class<R> type, String component) {
+        return RecordShape.of(type).lens(component);
+    }
+
+    /**
+     * Get a lens along a dotted path of properties, such as <code>"address.city.name"</code>.
+     * <p>
+     * Each property is either a record component, or a getter and wither pair: a getter named <code>getName()</code>,
+     * <code>isName()</code> or <code>name()</code>, along with a wither named <code>withName(value)</code> that
+     * returns a new instance. The properties are resolved and composed once, and the result is kept in a bounded cache
+     * alongside the root class, so looking up the same path again is a single hash probe, and the cache never keeps the
+     * class from being unloaded.
+     *
+     * @param root The class the path starts from.
+     * @param path The property names, separated by dots.
+     * @return A lens focusing on the end of the path.
+     * @param <R> The type of the root.
+     * @param <F> The type of the property at the end of the path.
+     * @throws IllegalArgumentException If a property cannot be resolved.
+     */
+    @SuppressWarnings("unchecked")
+    public static <R, F> SimpleLens<R, F> path(Class<R> root, String path) {
+        return (SimpleLens<R, F>) (SimpleLens<?, ?>) PATHS.get(root).get(path, key -> PropertyPath.resolve(root, key));
+    }
+}
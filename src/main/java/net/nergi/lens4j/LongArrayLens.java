@@ -0,0 +1,104 @@
+package net.nergi.lens4j;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Lenses into the elements of an <code>long[]</code> field, copying the array on write.
+ * <p>
+ * This is the <code>long</code> counterpart of {@link IntArrayLens}, with elements reached through {@link LongLens}.
+ *
+ * @param <S> The class holding the array.
+ */
+public final class LongArrayLens<S> {
+    /** The lens focusing on the array. */
+    private final SimpleLens<S, long[]> field;
+
+    /**
+     * Create lenses into the elements of an array field.
+     *
+     * @param field The lens focusing on the array, which is never modified through these lenses.
+     */
+    public LongArrayLens(SimpleLens<S, long[]> field) {
+        this.field = field;
+    }
+
+    /**
+     * Get a lens focusing on one element of the array.
+     * <p>
+     * Setting the element copies the array, unless the element already holds the value.
+     *
+     * @param index The index of the element.
+     * @return An unboxed lens focusing on the element.
+     */
+    public LongLens<S> at(int index) {
+        return field.andThenLong(new LongLens<>(array -> array[index], (value, array) -> {
+            if (array[index] == value) {
+                return array;
+            }
+
+            final long[] copy = array.clone();
+            copy[index] = value;
+            return copy;
+        }, true));
+    }
+
+    /**
+     * Get a lens focusing on a range of the array, as a new array.
+     * <p>
+     * Setting the range copies the array once, and takes an array as long as the range.
+     *
+     * @param from The index of the first element in the range.
+     * @param to The index after the last element in the range.
+     * @return A lens focusing on the range.
+     * @throws IndexOutOfBoundsException If the range is negative, checked again against the array when it is used.
+     */
+    public SimpleLens<S, long[]> range(int from, int to) {
+        Objects.checkFromToIndex(from, to, Integer.MAX_VALUE);
+        return field.andThenSimple(new SimpleLens<>(array -> {
+            Objects.checkFromToIndex(from, to, array.length);
+            return Arrays.copyOfRange(array, from, to);
+        }, (values, array) -> {
+            Objects.checkFromToIndex(from, to, array.length);
+            if (values.length != to - from) {
+                throw new IllegalArgumentException(
+                    "Expected " + (to - from) + " elements for the range, but got " + values.length + ".");
+            }
+
+            final long[] copy = array.clone();
+            System.arraycopy(values, 0, copy, from, values.length);
+            return copy;
+        }));
+    }
+
+    /**
+     * Map over a range of the array, copying it at most once.
+     * <p>
+     * The array is only copied once an element actually changes, so if none do, the instance is returned as-is.
+     *
+     * @param from The index of the first element in the range.
+     * @param to The index after the last element in the range.
+     * @param mapper The function to apply to each element in the range.
+     * @param instance The instance holding the array.
+     * @return A new instance with the range mapped over.
+     * @throws IndexOutOfBoundsException If the range is not within the array.
+     */
+    public S overRange(int from, int to, LongUnaryOperator mapper, S instance) {
+        final long[] array = field.view(instance);
+        Objects.checkFromToIndex(from, to, array.length);
+
+        long[] copy = null;
+        for (int i = from; i < to; ++i) {
+            final long value = mapper.applyAsLong(array[i]);
+            if (value != array[i]) {
+                if (copy == null) {
+                    copy = array.clone();
+                }
+                copy[i] = value;
+            }
+        }
+
+        return copy == null ? instance : field.set(copy, instance);
+    }
+}
@@ -0,0 +1,171 @@
+package net.nergi.lens4j;
+
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A lens focusing on a range of bits inside a <code>long</code>, for fields packed into a single word.
+ * <p>
+ * This works like {@link IntBitLens}, over 64 bits instead. It can also be applied to every word of a
+ * <code>long[]</code> at once, for tables of packed state: the range is cleared and filled with one mask per word, in
+ * a plain loop the JIT can unroll and vectorise. Bit ranges inside a field of an object are reached with
+ * {@link LongLens#andThen(LongBitLens)}.
+ */
+public final class LongBitLens {
+    /** The number of bits in the word. */
+    private static final int WORD_SIZE = Long.SIZE;
+
+    /** The position of the lowest bit of the range. */
+    private final int offset;
+
+    /** The number of bits in the range. */
+    private final int width;
+
+    /** Whether the range holds a two's complement signed number. */
+    private final boolean signed;
+
+    /** The bits of the range, in place within the word. */
+    private final long mask;
+
+    /**
+     * Create a lens focusing on an unsigned range of bits.
+     *
+     * @param offset The position of the lowest bit of the range.
+     * @param width The number of bits in the range.
+     * @throws IllegalArgumentException If the range does not fit in a <code>long</code>.
+     */
+    public LongBitLens(int offset, int width) {
+        this(offset, width, false);
+    }
+
+    /**
+     * Create a lens focusing on a range of bits.
+     *
+     * @param offset The position of the lowest bit of the range.
+     * @param width The number of bits in the range.
+     * @param signed Whether the range holds a signed number.
+     * @throws IllegalArgumentException If the range does not fit in a <code>long</code>.
+     */
+    public LongBitLens(int offset, int width, boolean signed) {
+        if (offset < 0 || width <= 0 || width > WORD_SIZE - offset) {
+            throw new IllegalArgumentException("Bit range " + offset + " + " + width + " does not fit in a long.");
+        }
+
+        this.offset = offset;
+        this.width = width;
+        this.signed = signed;
+        this.mask = (-1L >>> (WORD_SIZE - width)) << offset;
+    }
+
+    /**
+     * View the range of bits in a word.
+     *
+     * @param word The word to view.
+     * @return The number held in the range.
+     */
+    public long view(long word) {
+        return signed
+            ? (word << (WORD_SIZE - offset - width)) >> (WORD_SIZE - width)
+            : (word & mask) >>> offset;
+    }
+
+    /**
+     * Set the range of bits in a word.
+     *
+     * @param value The new number to hold in the range, truncated to its width.
+     * @param word The word to set the range of.
+     * @return The word with the range replaced.
+     */
+    public long set(long value, long word) {
+        return (word & ~mask) | ((value << offset) & mask);
+    }
+
+    /**
+     * Map over the range of bits in a word.
+     *
+     * @param mapper The function to apply to the number held in the range.
+     * @param word The word to map over.
+     * @return The word with the range mapped over.
+     */
+    public long over(LongUnaryOperator mapper, long word) {
+        return set(mapper.applyAsLong(view(word)), word);
+    }
+
+    /**
+     * Set the range of bits in every word of an array.
+     *
+     * @param value The new number to hold in each range, truncated to its width.
+     * @param words The words to set the range of. This array is not modified.
+     * @return A new array with the range replaced in every word.
+     */
+    public long[] setAll(long value, long[] words) {
+        final long[] result = words.clone();
+        setAllInPlace(value, result);
+        return result;
+    }
+
+    /**
+     * Map over the range of bits in every word of an array.
+     *
+     * @param mapper The function to apply to the number held in each range.
+     * @param words The words to map over. This array is not modified.
+     * @return A new array with the range mapped over in every word.
+     */
+    public long[] overAll(LongUnaryOperator mapper, long[] words) {
+        final long[] result = words.clone();
+        overAllInPlace(mapper, result);
+        return result;
+    }
+
+    /**
+     * Set the range of bits in every word of an array, modifying the array.
+     *
+     * @param value The new number to hold in each range, truncated to its width.
+     * @param words The words to set the range of.
+     */
+    public void setAllInPlace(long value, long[] words) {
+        final long keep = ~mask;
+        final long bits = (value << offset) & mask;
+        for (int i = 0; i < words.length; ++i) {
+            words[i] = (words[i] & keep) | bits;
+        }
+    }
+
+    /**
+     * Map over the range of bits in every word of an array, modifying the array.
+     *
+     * @param mapper The function to apply to the number held in each range.
+     * @param words The words to map over.
+     */
+    public void overAllInPlace(LongUnaryOperator mapper, long[] words) {
+        for (int i = 0; i < words.length; ++i) {
+            words[i] = over(mapper, words[i]);
+        }
+    }
+
+    /**
+     * Get the position of the lowest bit of the range.
+     *
+     * @return The offset of the range.
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * Get the number of bits in the range.
+     *
+     * @return The width of the range.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Check if the range holds a signed number.
+     *
+     * @return True if the range is sign-extended when viewed.
+     */
+    public boolean signed() {
+        return signed;
+    }
+}
@@ -0,0 +1,192 @@
+package net.nergi.lens4j;
+
+import java.util.Arrays;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+
+/**
+ * A lens focusing on a <code>long</code> field, which never boxes it.
+ * <p>
+ * This is the <code>long</code> counterpart of {@link IntLens}. Use {@link #boxed} to get a lens of {@link Long}
+ * for the same field.
+ *
+ * @param <S> The class being viewed.
+ */
+public final class LongLens<S> {
+    /** The lenses leading to the object holding the field, from the outermost. Empty if the instance holds it. */
+    private final Lens<Object, Object, Object, Object>[] path;
+
+    /** The accessor function to the field. */
+    private final ToLongFunction<Object> accessor;
+
+    /** The function that generates new instances of the class given new contents of the field. */
+    private final Replacer<Object> replacer;
+
+    /** Whether some lens along the path, or the field itself, skips updates leaving it unchanged. */
+    private final boolean keepsUnchanged;
+
+    /**
+     * Create a <code>long</code> lens.
+     *
+     * @param accessor Function that provides a view into the field.
+     * @param replacer Function that generates a new instance of the class with the field set to the new value.
+     */
+    public LongLens(ToLongFunction<S> accessor, Replacer<S> replacer) {
+        this(accessor, replacer, false);
+    }
+
+    /**
+     * Create a <code>long</code> lens, which may skip updates leaving its field unchanged.
+     *
+     * @param accessor Function that provides a view into the field.
+     * @param replacer Function that generates a new instance of the class with the field set to the new value.
+     * @param keepsUnchanged Whether the replacer returns the instance itself for no-op updates.
+     */
+    @SuppressWarnings("unchecked")
+    LongLens(ToLongFunction<S> accessor, Replacer<S> replacer, boolean keepsUnchanged) {
+        this(Lens.newStageArray(0), (ToLongFunction<Object>) accessor, (Replacer<Object>) replacer, keepsUnchanged);
+    }
+
+    private LongLens(Lens<Object, Object, Object, Object>[] path, ToLongFunction<Object> accessor,
+                     Replacer<Object> replacer, boolean keepsUnchanged) {
+        this.path = path;
+        this.accessor = accessor;
+        this.replacer = replacer;
+        this.keepsUnchanged = keepsUnchanged;
+    }
+
+    /**
+     * Create a lens running along the path of a lens, then into the field of a <code>long</code> lens.
+     *
+     * @param outer The outer lens.
+     * @param inner The <code>long</code> lens, focusing on the field of the objects the outer lens focuses on.
+     * @return The composed lens.
+     * @param <S> The class being viewed.
+     */
+    static <S> LongLens<S> compose(SimpleLens<S, ?> outer, LongLens<?> inner) {
+        final Lens<Object, Object, Object, Object>[] head = outer.stages();
+        final Lens<Object, Object, Object, Object>[] path = Lens.newStageArray(head.length + inner.path.length);
+        System.arraycopy(head, 0, path, 0, head.length);
+        System.arraycopy(inner.path, 0, path, head.length, inner.path.length);
+
+        return new LongLens<>(path, inner.accessor, inner.replacer, outer.keepsUnchanged() || inner.keepsUnchanged);
+    }
+
+    /**
+     * View the field of an instance.
+     *
+     * @param instance The instance to view.
+     * @return The contents of the field.
+     */
+    public long viewLong(S instance) {
+        Object current = instance;
+        for (final Lens<Object, Object, Object, Object> stage : path) {
+            current = stage.view(current);
+        }
+
+        return accessor.applyAsLong(current);
+    }
+
+    /**
+     * Set the field of an instance.
+     *
+     * @param value The new value of the field.
+     * @param instance The instance to set the field of.
+     * @return A new instance with the field replaced.
+     */
+    @SuppressWarnings("unchecked")
+    public S setLong(long value, S instance) {
+        return (S) setAt(0, value, instance);
+    }
+
+    /**
+     * Map over the field of an instance.
+     *
+     * @param mapper The function to apply to the field.
+     * @param instance The instance to map over.
+     * @return A new instance with the field mapped over.
+     */
+    @SuppressWarnings("unchecked")
+    public S overLong(LongUnaryOperator mapper, S instance) {
+        return (S) overAt(0, mapper, instance);
+    }
+
+    /** Set the field below the object at a depth along the path, rebuilding it unless it can be kept. */
+    private Object setAt(int depth, long value, Object parent) {
+        if (depth == path.length) {
+            return replacer.apply(value, parent);
+        }
+
+        final Lens<Object, Object, Object, Object> stage = path[depth];
+        final Object child = stage.view(parent);
+        final Object updated = setAt(depth + 1, value, child);
+        return keepsUnchanged && updated == child ? parent : stage.set(updated, parent);
+    }
+
+    /** Map over the field below the object at a depth along the path, rebuilding it unless it can be kept. */
+    private Object overAt(int depth, LongUnaryOperator mapper, Object parent) {
+        if (depth == path.length) {
+            return replacer.apply(mapper.applyAsLong(accessor.applyAsLong(parent)), parent);
+        }
+
+        final Lens<Object, Object, Object, Object> stage = path[depth];
+        final Object child = stage.view(parent);
+        final Object updated = overAt(depth + 1, mapper, child);
+        return keepsUnchanged && updated == child ? parent : stage.set(updated, parent);
+    }
+
+    /**
+     * Compose this lens with a lens into a range of bits of the field, for fields packed into the <code>long</code>.
+     * <p>
+     * The composed lens is just as unboxed as this one. Setting the range to what it already holds keeps the instance.
+     *
+     * @param bits The range of bits to focus on.
+     * @return A lens focusing on the range of bits of the field.
+     */
+    public LongLens<S> andThen(LongBitLens bits) {
+        final ToLongFunction<Object> field = accessor;
+        final Replacer<Object> rebuild = replacer;
+        return new LongLens<>(path, instance -> bits.view(field.applyAsLong(instance)), (value, instance) -> {
+            final long word = field.applyAsLong(instance);
+            final long updated = bits.set(value, word);
+            return updated == word ? instance : rebuild.apply(updated, instance);
+        }, true);
+    }
+
+    /**
+     * Get an ordinary lens for the same field, which boxes it.
+     *
+     * @return A simple lens viewing and setting the field.
+     */
+    @SuppressWarnings("unchecked")
+    public SimpleLens<S, Long> boxed() {
+        final ToLongFunction<Object> get = accessor;
+        final Replacer<Object> set = replacer;
+        final SimpleLens<Object, Long> field = new SimpleLens<>(get::applyAsLong, set::apply,
+            (mapper, instance) -> set.apply(mapper.apply(get.applyAsLong(instance)), instance), keepsUnchanged);
+        if (path.length == 0) {
+            return (SimpleLens<S, Long>) (SimpleLens<?, ?>) field;
+        }
+
+        final Lens<Object, Object, Object, Object>[] stages = Arrays.copyOf(path, path.length + 1);
+        stages[path.length] = (Lens<Object, Object, Object, Object>) (Lens<?, ?, ?, ?>) field;
+        return new SimpleLens<>(new LensPath(stages));
+    }
+
+    /**
+     * Generates new instances of a class given new contents of a <code>long</code> field.
+     *
+     * @param <S> The class being replaced.
+     */
+    @FunctionalInterface
+    public interface Replacer<S> {
+        /**
+         * Create a new instance with the field replaced.
+         *
+         * @param value The new value of the field.
+         * @param instance The instance to replace the field of.
+         * @return A new instance with the field set to the value.
+         */
+        S apply(long value, S instance);
+    }
+}
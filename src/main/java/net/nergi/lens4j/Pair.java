@@ -0,0 +1,14 @@
+package net.nergi.lens4j;
+
+/**
+ * The Pair product type.
+ * <p>
+ * Usually used to hold the fields viewed through two lenses at once.
+ *
+ * @param first The first item of this pair.
+ * @param second The second item of this pair.
+ * @param <A> The type of the first item.
+ * @param <B> The type of the second item.
+ */
+public record Pair<A, B>(A first, B second) {
+}
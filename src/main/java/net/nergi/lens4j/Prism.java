@@ -0,0 +1,136 @@
+package net.nergi.lens4j;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The Prism.
+ * <p>
+ * Where a lens focuses on a field every instance has, a prism focuses on one case of a sum type, such as one subclass
+ * of a sealed hierarchy. Viewing through a prism may find nothing, and building through it always produces an instance
+ * of its case.
+ * <p>
+ * Mapping over or setting an instance of another case does nothing, and returns the instance itself without
+ * allocating anything. So does mapping to the same item, compared by identity.
+ * <p>
+ * For the prism to work correctly, <code>matcher</code> and <code>extractor</code> must be pure, <code>extractor</code>
+ * must only be called on matching instances, and <code>builder</code> must always build a matching instance that
+ * <code>extractor</code> gets the same item back from.
+ *
+ * @param <S> The sum type being viewed.
+ * @param <A> The item of the case being viewed.
+ */
+public final class Prism<S, A> {
+    /** The predicate checking if an instance is of the case. */
+    private final Predicate<S> matcher;
+
+    /** The function getting the item of an instance, or {@link Affine#ABSENT} if it is of another case. */
+    private final Function<S, Object> probe;
+
+    /** The function building an instance of the case from an item. */
+    private final Function<A, S> builder;
+
+    /**
+     * Create a prism.
+     *
+     * @param matcher Predicate checking if an instance is of the case.
+     * @param extractor Function getting the item of an instance of the case.
+     * @param builder Function building an instance of the case from an item.
+     */
+    public Prism(Predicate<S> matcher, Function<S, A> extractor, Function<A, S> builder) {
+        this.matcher = matcher;
+        this.probe = instance -> matcher.test(instance) ? extractor.apply(instance) : Affine.ABSENT;
+        this.builder = builder;
+    }
+
+    private Prism(Function<S, Object> probe, Function<A, S> builder) {
+        this.matcher = instance -> probe.apply(instance) != Affine.ABSENT;
+        this.probe = probe;
+        this.builder = builder;
+    }
+
+    /**
+     * Check if an instance is of the case of this prism.
+     *
+     * @param instance Instance to check.
+     * @return Whether the prism focuses on an item of the instance.
+     */
+    public boolean matches(S instance) {
+        return matcher.test(instance);
+    }
+
+    /**
+     * View the item of an instance, if it is of the case of this prism.
+     *
+     * @param instance Instance to peek the item of.
+     * @return The item, or nothing if the instance is of another case or the item is null.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<A> preview(S instance) {
+        final Object item = probe.apply(instance);
+        return item == Affine.ABSENT ? Optional.empty() : Optional.ofNullable((A) item);
+    }
+
+    /** The function getting the item of an instance, or {@link Affine#ABSENT} if it is of another case. */
+    Function<S, Object> probe() {
+        return probe;
+    }
+
+    /**
+     * Build an instance of the case of this prism.
+     *
+     * @param item Item to build the instance from.
+     * @return The built instance.
+     */
+    public S review(A item) {
+        return builder.apply(item);
+    }
+
+    /**
+     * Map over the item of an instance, if it is of the case of this prism.
+     *
+     * @param mapper Mapping function, which is a unary operator.
+     * @param instance Instance to map over.
+     * @return New instance with the mapped item, or the instance itself if it is of another case or the item is the
+     *     same.
+     */
+    @SuppressWarnings("unchecked")
+    public S over(Function<A, A> mapper, S instance) {
+        final Object item = probe.apply(instance);
+        if (item == Affine.ABSENT) {
+            return instance;
+        }
+
+        final A mapped = mapper.apply((A) item);
+        return mapped == item ? instance : builder.apply(mapped);
+    }
+
+    /**
+     * Set the item of an instance, if it is of the case of this prism.
+     *
+     * @param item New item.
+     * @param instance Instance to replace the item of.
+     * @return New instance with the item, or the instance itself if it is of another case.
+     */
+    public S set(A item, S instance) {
+        return matcher.test(instance) ? builder.apply(item) : instance;
+    }
+
+    /**
+     * Run another prism after this one, focusing on a case of the item of this prism's case.
+     * <p>
+     * The combined prism extracts the item of this prism's case once, and hands it straight to the next prism.
+     *
+     * @param next The next prism to run.
+     * @return The combined prism, matching only instances whose items the next prism matches.
+     * @param <B> The item of the case of the next prism.
+     */
+    @SuppressWarnings("unchecked")
+    public <B> Prism<S, B> andThen(Prism<A, B> next) {
+        return new Prism<>(instance -> {
+            final Object item = probe.apply(instance);
+            return item == Affine.ABSENT ? Affine.ABSENT : next.probe.apply((A) item);
+        }, item -> builder.apply(next.builder.apply(item)));
+    }
+}
@@ -0,0 +1,24 @@
+package net.nergi.lens4j;
+
+/**
+ * Prisms for common sum types.
+ * <p>
+ * Prisms for the cases of an <code>Either</code> are kept with it, in <code>EitherPrisms</code>.
+ */
+public final class Prisms {
+    private Prisms() {
+        // This class cannot be instantiated.
+    }
+
+    /**
+     * Create a prism focusing on one subtype of a type, such as one case of a sealed hierarchy.
+     *
+     * @param type The subtype to focus on.
+     * @return The prism, whose item is the instance itself.
+     * @param <S> The type being viewed.
+     * @param <A> The subtype focused on.
+     */
+    public static <S, A extends S> Prism<S, A> instanceOf(Class<A> type) {
+        return new Prism<>(type::isInstance, type::cast, item -> item);
+    }
+}
@@ -0,0 +1,142 @@
+package net.nergi.lens4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves dotted property paths, such as <code>"address.city.name"</code>, into composed lenses.
+ * <p>
+ * Each property is either a record component, or a getter and wither pair on a class: a getter named
+ * <code>getName()</code>, <code>isName()</code> or <code>name()</code>, and a wither named <code>withName(value)</code>
+ * returning a new instance.
+ * <p>
+ * Properties are resolved once per class and kept with a {@link ClassValue}, so every path through the same property
+ * of a class is made of the same lens. Updates grouped by the lenses along their paths, as in {@link UpdatePlan}, then
+ * share the prefixes of separately resolved paths.
+ */
+final class PropertyPath {
+    /** The properties resolved so far, per class and by name. */
+    private static final ClassValue<ConcurrentMap<String, Property>> PROPERTIES = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<String, Property> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private PropertyPath() {
+        // This class cannot be instantiated.
+    }
+
+    /**
+     * Resolve a dotted property path into a lens.
+     *
+     * @param root The class the path starts from.
+     * @param path The property names, separated by dots.
+     * @return A lens composed of the lenses for each property.
+     * @throws IllegalArgumentException If a property cannot be resolved.
+     */
+    static SimpleLens<Object, Object> resolve(Class<?> root, String path) {
+        final String[] names = path.split("\\.", -1);
+
+        Class<?> current = root;
+        SimpleLens<Object, Object> lens = null;
+        for (final String name : names) {
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty property name in path \"" + path + "\".");
+            }
+
+            final Property property = property(current, name);
+            lens = lens == null ? property.lens : lens.andThenSimple(property.lens);
+            current = property.type;
+        }
+
+        return lens;
+    }
+
+    /** Get a single property of a class, resolving it if it is the first time. */
+    private static Property property(Class<?> type, String name) {
+        return PROPERTIES.get(type).computeIfAbsent(name, key -> resolveProperty(type, key));
+    }
+
+    /** Resolve a single property of a class. */
+    private static Property resolveProperty(Class<?> type, String name) {
+        if (type.isRecord()) {
+            for (final RecordComponent component : type.getRecordComponents()) {
+                if (component.getName().equals(name)) {
+                    return new Property(RecordShape.of(type).lens(name), component.getType());
+                }
+            }
+        }
+
+        final String capitalised = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        final Method getter = findGetter(type, name, capitalised);
+        final Method wither = getter == null ? null : findWither(type, getter.getReturnType(), capitalised);
+        if (wither == null) {
+            throw new IllegalArgumentException(
+                "No record component or getter and wither pair named \"" + name + "\" in " + type.getName() + ".");
+        }
+
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            final MethodHandle view = lookup.unreflect(getter);
+
+            // Withers take (instance, value), but replacers take (value, instance).
+            final MethodHandle with = lookup.unreflect(wither);
+            final MethodHandle set = MethodHandles.permuteArguments(with,
+                MethodType.methodType(with.type().returnType(), getter.getReturnType(), type), 1, 0);
+
+            final LensHandles handles = LensHandles.of(
+                view.asType(MethodType.methodType(Object.class, Object.class)),
+                set.asType(MethodType.methodType(Object.class, Object.class, Object.class)));
+
+            return new Property(new SimpleLens<>(handles.accessor(), handles.replacer(), handles.modifier()),
+                getter.getReturnType());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access the property \"" + name + "\" of " + type.getName()
+                + "; its package may need to be opened to Lens4J.", e);
+        }
+    }
+
+    /** Find the getter of a property, or null if there is none. */
+    private static Method findGetter(Class<?> type, String name, String capitalised) {
+        for (final String candidate : new String[] {"get" + capitalised, "is" + capitalised, name}) {
+            try {
+                final Method method = type.getMethod(candidate);
+                if (!Modifier.isStatic(method.getModifiers()) && method.getReturnType() != void.class) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                // Try the next naming convention.
+            }
+        }
+
+        return null;
+    }
+
+    /** Find the wither of a property, or null if there is none. */
+    private static Method findWither(Class<?> type, Class<?> propertyType, String capitalised) {
+        try {
+            final Method method = type.getMethod("with" + capitalised, propertyType);
+            return !Modifier.isStatic(method.getModifiers()) && type.isAssignableFrom(method.getReturnType())
+                ? method
+                : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A resolved property.
+     *
+     * @param lens The lens focusing on the property.
+     * @param type The type of the property.
+     */
+    private record Property(SimpleLens<Object, Object> lens, Class<?> type) {
+    }
+}
@@ -0,0 +1,173 @@
+package net.nergi.lens4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The accessors and canonical constructor of a record class, resolved into method handles.
+ * <p>
+ * Resolving these is slow, so it is done once per record class and cached with a {@link ClassValue}. The lens for a
+ * component is only built the first time it is asked for, as compiling it defines classes of its own, with a replacer
+ * that calls the canonical constructor directly, passing every other component straight from the old instance.
+ */
+final class RecordShape {
+    /** The shapes of every record class seen so far. */
+    private static final ClassValue<RecordShape> SHAPES = new ClassValue<>() {
+        @Override
+        protected RecordShape computeValue(Class<?> type) {
+            return new RecordShape(type);
+        }
+    };
+
+    /** The record class. */
+    private final Class<?> type;
+
+    /** The accessor of each component, in declaration order. */
+    private final MethodHandle[] accessors;
+
+    /** The canonical constructor. */
+    private final MethodHandle constructor;
+
+    /** The lens for each component, in declaration order, or null until it is first asked for. */
+    private final AtomicReferenceArray<SimpleLens<?, ?>> lenses;
+
+    /** The index of each component, by name. */
+    private final Map<String, Integer> indices;
+
+    private RecordShape(Class<?> type) {
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException(type.getName() + " is not a record.");
+        }
+
+        this.type = type;
+
+        final RecordComponent[] components = type.getRecordComponents();
+        final Class<?>[] componentTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class[]::new);
+
+        this.accessors = new MethodHandle[components.length];
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            for (int i = 0; i < components.length; ++i) {
+                accessors[i] = lookup.unreflect(components[i].getAccessor());
+            }
+            constructor = lookup.findConstructor(type, MethodType.methodType(void.class, componentTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot access the components of " + type.getName()
+                + "; its package may need to be opened to Lens4J.", e);
+        }
+
+        this.lenses = new AtomicReferenceArray<>(components.length);
+        this.indices = new HashMap<>(components.length * 2);
+        for (int i = 0; i < components.length; ++i) {
+            indices.put(components[i].getName(), i);
+        }
+    }
+
+    /**
+     * Get the shape of a record class.
+     *
+     * @param type The record class.
+     * @return The shape of the record class.
+     * @throws IllegalArgumentException If the class is not a record, or its components cannot be accessed.
+     */
+    static RecordShape of(Class<?> type) {
+        return SHAPES.get(type);
+    }
+
+    /**
+     * Get the lens for a component of the record, building it if it is the first time.
+     * <p>
+     * Concurrent first calls for the same component may each build a lens, but only one is kept, so the same lens is
+     * always returned for a component.
+     *
+     * @param component The name of the component.
+     * @return The lens for the component.
+     * @throws IllegalArgumentException If there is no such component.
+     */
+    @SuppressWarnings("unchecked")
+    <R, F> SimpleLens<R, F> lens(String component) {
+        final Integer index = indices.get(component);
+        if (index == null) {
+            throw new IllegalArgumentException(
+                "No record component named \"" + component + "\" in " + type.getName() + ".");
+        }
+
+        final SimpleLens<?, ?> lens = lenses.get(index);
+        if (lens != null) {
+            return (SimpleLens<R, F>) lens;
+        }
+
+        lenses.compareAndSet(index, null, componentLens(index));
+        return (SimpleLens<R, F>) lenses.get(index);
+    }
+
+    /**
+     * Get the index of the component a lens focuses on, if it is one of the lenses of a record.
+     *
+     * @param lens Any lens.
+     * @return The shape of the record and the index of the component, or null if the lens is not for a component.
+     */
+    static Component componentOf(Lens<?, ?, ?, ?> lens) {
+        return lens.replacer() instanceof LensHandles.Compiled replacer && replacer.tag() instanceof Component component
+            ? component
+            : null;
+    }
+
+    /**
+     * Build a handle that creates a new instance with some components replaced, calling the canonical constructor
+     * once and taking every other component from the old instance.
+     *
+     * @param indices The indices of the components to replace, which must be distinct.
+     * @return A handle taking the old instance, then the new values in the order of the indices given.
+     */
+    MethodHandle rebuildWith(int[] indices) {
+        final Class<?>[] parameters = new Class<?>[indices.length + 1];
+        parameters[0] = type;
+
+        // Parameter 0 is the old instance, and parameter k + 1 is the new value for indices[k].
+        final int[] reorder = new int[accessors.length];
+        for (int k = 0; k < indices.length; ++k) {
+            reorder[indices[k]] = k + 1;
+            parameters[k + 1] = accessors[indices[k]].type().returnType();
+        }
+
+        // Fill every other parameter of the constructor from the old instance.
+        MethodHandle rebuild = constructor;
+        for (int i = 0; i < accessors.length; ++i) {
+            if (reorder[i] == 0) {
+                rebuild = MethodHandles.filterArguments(rebuild, i, accessors[i]);
+            }
+        }
+
+        return MethodHandles.permuteArguments(rebuild, MethodType.methodType(type, parameters), reorder);
+    }
+
+    /** Build the lens for one component, from the accessors and canonical constructor. */
+    private SimpleLens<Object, Object> componentLens(int index) {
+        final MethodType erasedView = MethodType.methodType(Object.class, Object.class);
+        final MethodType erasedSet = MethodType.methodType(Object.class, Object.class, Object.class);
+
+        // Take the new value, then the old instance.
+        final MethodHandle rebuild = rebuildWith(new int[] {index});
+        final MethodHandle set = MethodHandles.permuteArguments(rebuild,
+            MethodType.methodType(type, rebuild.type().parameterType(1), type), 1, 0);
+
+        final LensHandles handles = LensHandles.of(accessors[index].asType(erasedView), set.asType(erasedSet));
+        return new SimpleLens<>(handles.accessor(), handles.replacer(new Component(this, index)), handles.modifier());
+    }
+
+    /**
+     * A component of a record.
+     *
+     * @param shape The shape of the record.
+     * @param index The index of the component.
+     */
+    record Component(RecordShape shape, int index) {
+    }
+}
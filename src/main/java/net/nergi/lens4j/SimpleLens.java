@@ -20,8 +20,148 @@ public final class SimpleLens<T, F> extends Lens<T, T, F, F> {
         super(accessor, replacer);
     }
 
+    /**
+     * Create a simple lens with a fused modifier.
+     *
+     * @param accessor Getter function for the object.
+     * @param replacer Immutable setter function for the object.
+     * @param modifier Immutable mapping function for the object.
+     * @see Lens#Lens(Function, BiFunction, BiFunction)
+     */
+    public SimpleLens(Function<T, F> accessor, BiFunction<F, T, T> replacer,
+                      BiFunction<Function<F, F>, T, T> modifier) {
+        super(accessor, replacer, modifier);
+    }
+
+    /**
+     * Create a simple lens with a fused modifier, which may skip updates leaving its field unchanged.
+     *
+     * @param accessor Getter function for the object.
+     * @param replacer Immutable setter function for the object.
+     * @param modifier Immutable mapping function for the object.
+     * @param keepsUnchanged Whether the replacer and modifier return the instance itself for no-op updates.
+     */
+    SimpleLens(Function<T, F> accessor, BiFunction<F, T, T> replacer, BiFunction<Function<F, F>, T, T> modifier,
+               boolean keepsUnchanged) {
+        super(accessor, replacer, modifier, keepsUnchanged);
+    }
+
+    /**
+     * Create a simple lens that runs along a flattened path of other lenses.
+     *
+     * @param path The path to run along.
+     */
+    SimpleLens(LensPath path) {
+        super(path);
+    }
+
     /** Like {@link Lens#andThen}, but only for simple lenses. */
     public <G> SimpleLens<T, G> andThenSimple(SimpleLens<F, G> next) {
-        return new SimpleLens<>(t -> next.view(view(t)), (g, t) -> set(next.set(g, view(t)), t));
+        return new SimpleLens<>(LensPath.compose(this, next));
+    }
+
+    /**
+     * Compose this lens with a prism, focusing on a case of the field of this lens.
+     *
+     * @param next The prism focusing on a case of the field.
+     * @return An affine optic focusing on the item of the case from the root, if the field is of that case.
+     * @param <G> The item of the case of the prism.
+     */
+    public <G> Affine<T, G> andThen(Prism<F, G> next) {
+        return Affine.of(this).andThen(next);
+    }
+
+    /**
+     * Compose this lens with an affine optic, focusing on an item of the field of this lens if it has one.
+     *
+     * @param next The affine optic focusing on an item of the field.
+     * @return An affine optic focusing on the item from the root.
+     * @param <G> The item of the affine optic.
+     */
+    public <G> Affine<T, G> andThen(Affine<F, G> next) {
+        return Affine.of(this).andThen(next);
+    }
+
+    /**
+     * Compose this lens with an <code>int</code> lens, keeping the field unboxed.
+     *
+     * @param next The lens focusing on an <code>int</code> field of the field of this lens.
+     * @return A lens focusing on the <code>int</code> field from the root.
+     */
+    public IntLens<T> andThenInt(IntLens<F> next) {
+        return IntLens.compose(this, next);
+    }
+
+    /**
+     * Compose this lens with a <code>long</code> lens, keeping the field unboxed.
+     *
+     * @param next The lens focusing on a <code>long</code> field of the field of this lens.
+     * @return A lens focusing on the <code>long</code> field from the root.
+     */
+    public LongLens<T> andThenLong(LongLens<F> next) {
+        return LongLens.compose(this, next);
+    }
+
+    /**
+     * Compose this lens with a <code>double</code> lens, keeping the field unboxed.
+     *
+     * @param next The lens focusing on a <code>double</code> field of the field of this lens.
+     * @return A lens focusing on the <code>double</code> field from the root.
+     */
+    public DoubleLens<T> andThenDouble(DoubleLens<F> next) {
+        return DoubleLens.compose(this, next);
+    }
+
+    /**
+     * Make a lens that returns the original instance for updates that would not change the field.
+     * <p>
+     * Normally, setting or mapping over a field always builds a new instance, even when the new value is the same as
+     * the old one. With a policy other than {@link EqualityPolicy#NONE}, the new value is compared with the old one
+     * first, and the instance is returned untouched if they are the same. This keeps no-op updates from allocating, and
+     * preserves reference equality for anything keyed on identity.
+     * <p>
+     * A lens composed with the returned lens, on either side, never rebuilds an object whose child came back
+     * unchanged, so a no-op update through the whole chain returns the original root. Lenses composed without a policy
+     * keep rebuilding every object along their path. Setting through the returned lens needs to view the old value, so
+     * it runs one more accessor than before.
+     *
+     * @param policy How to compare the old and new values of the field.
+     * @return A lens using the given policy, or this lens if the policy is {@link EqualityPolicy#NONE}.
+     */
+    @SuppressWarnings("unchecked")
+    public SimpleLens<T, F> withEquality(EqualityPolicy policy) {
+        if (policy == EqualityPolicy.NONE) {
+            return this;
+        }
+
+        final Lens<Object, Object, Object, Object>[] stages = stages();
+        if (stages.length == 1) {
+            return guard(this, policy);
+        }
+
+        // Only the innermost field needs comparing, as the rest of the path keeps unchanged objects once it is guarded.
+        final Lens<Object, Object, Object, Object>[] guarded = stages.clone();
+        guarded[guarded.length - 1] = (Lens<Object, Object, Object, Object>) (Lens<?, ?, ?, ?>)
+            guard(stages[stages.length - 1], policy);
+
+        return new SimpleLens<>(new LensPath(guarded));
+    }
+
+    /** Wrap a single lens so that it skips updates leaving its field unchanged. */
+    private static <S, A> SimpleLens<S, A> guard(Lens<S, S, A, A> lens, EqualityPolicy policy) {
+        return new SimpleLens<>(lens.accessor(),
+            (value, instance) -> policy.same(lens.view(instance), value) ? instance : lens.set(value, instance),
+            (mapper, instance) -> {
+                final A oldValue = lens.view(instance);
+                final A newValue = mapper.apply(oldValue);
+                return policy.same(oldValue, newValue) ? instance : lens.set(newValue, instance);
+            }, true);
+    }
+
+    /** Like {@link Lens#compile}, but keeps the lens simple. */
+    @Override
+    public SimpleLens<T, F> compile() {
+        final LensHandles handles = LensHandles.compile(this);
+        return new SimpleLens<>(handles.accessor(), handles.replacer(), handles.modifier(), keepsUnchanged());
     }
 }
@@ -0,0 +1,16 @@
+package net.nergi.lens4j;
+
+/**
+ * The Triple product type.
+ * <p>
+ * Usually used to hold the fields viewed through three lenses at once.
+ *
+ * @param first The first item of this triple.
+ * @param second The second item of this triple.
+ * @param third The third item of this triple.
+ * @param <A> The type of the first item.
+ * @param <B> The type of the second item.
+ * @param <C> The type of the third item.
+ */
+public record Triple<A, B, C>(A first, B second, C third) {
+}
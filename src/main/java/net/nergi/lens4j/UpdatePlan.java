@@ -0,0 +1,294 @@
+package net.nergi.lens4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A batch of updates through many lenses, applied to an instance at once.
+ * <p>
+ * Setting fields one lens at a time rebuilds every object along each path, so updating <code>a.b.c</code>,
+ * <code>a.b.d</code> and <code>a.e</code> rebuilds <code>a</code> three times and <code>a.b</code> twice. A plan
+ * instead groups its updates by the lenses along their paths, compared by identity, into a tree. Applying the plan
+ * walks the tree once: each object is viewed once, every update below it is applied, then it is rebuilt once. Lenses
+ * from {@link Lenses#forRecord} are cached, and {@link Lenses#path} reuses the same lens for each property of a class,
+ * so paths built from them share their common prefixes.
+ * <p>
+ * When several updates in the same object go through components of the same record, that record is rebuilt with a
+ * single call to its canonical constructor. Objects with nothing changed below them are kept as-is.
+ * <p>
+ * Updates through the same path are applied in the order they were added, as are updates through a path and the paths
+ * extending it. Updates on different fields of the same object are applied together, so they must not overlap. A plan
+ * can be applied to any number of instances, but is not safe to add updates to from several threads.
+ *
+ * @param <S> The type of the instances the plan updates.
+ */
+public final class UpdatePlan<S> {
+    /** The tree of updates, with one node for each lens along every path. */
+    private final Node root = new Node(null);
+
+    /** The number of updates added. */
+    private int size = 0;
+
+    /**
+     * Add an update setting the field of a lens.
+     *
+     * @param lens The lens to set through.
+     * @param value The new value of the field.
+     * @return This plan.
+     * @param <A> The type of the field.
+     */
+    public <A> UpdatePlan<S> set(SimpleLens<S, A> lens, A value) {
+        nodeOf(lens).assign(value);
+        ++size;
+        return this;
+    }
+
+    /**
+     * Add an update mapping over the field of a lens.
+     *
+     * @param lens The lens to map through.
+     * @param mapper The function to apply to the field.
+     * @return This plan.
+     * @param <A> The type of the field.
+     */
+    @SuppressWarnings("unchecked")
+    public <A> UpdatePlan<S> over(SimpleLens<S, A> lens, Function<A, A> mapper) {
+        nodeOf(lens).map((Function<Object, Object>) (Function<?, ?>) mapper);
+        ++size;
+        return this;
+    }
+
+    /**
+     * Apply every update in the plan to an instance.
+     *
+     * @param instance The instance to update.
+     * @return The updated instance, which is the instance itself if the plan changed nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public S apply(S instance) {
+        return (S) root.apply(instance);
+    }
+
+    /**
+     * Get the number of updates in the plan.
+     *
+     * @return The number of updates added.
+     */
+    public int size() {
+        return size;
+    }
+
+    /** Find the node at the end of the path of a lens, adding nodes as needed. */
+    private Node nodeOf(Lens<?, ?, ?, ?> lens) {
+        Node node = root;
+        for (final Lens<Object, Object, Object, Object> stage : lens.stages()) {
+            node = node.child(stage);
+        }
+
+        return node;
+    }
+
+    /** The updates to an object, reached from its parent through a lens. */
+    private static final class Node {
+        /** The lens from the parent object to this one, or null for the root. */
+        private final Lens<Object, Object, Object, Object> stage;
+
+        /** The nodes for the fields of this object, in the order they were first updated. */
+        private final List<Node> children = new ArrayList<>();
+
+        /** Whether the object is replaced outright, before any other updates. */
+        private boolean assigned = false;
+
+        /** The object replacing the old one, if assigned. */
+        private Object value = null;
+
+        /** The function to apply to the object before updating its fields, or null if there is none. */
+        private Function<Object, Object> mapper = null;
+
+        /** How the children are rebuilt, or null if it has to be worked out again. */
+        private Rebuild rebuild = null;
+
+        Node(Lens<Object, Object, Object, Object> stage) {
+            this.stage = stage;
+        }
+
+        /** Get the node for a field, adding it if needed. */
+        Node child(Lens<Object, Object, Object, Object> stage) {
+            for (final Node child : children) {
+                if (child.stage == stage) {
+                    return child;
+                }
+            }
+
+            final Node child = new Node(stage);
+            children.add(child);
+            rebuild = null;
+            return child;
+        }
+
+        /** Replace the object, discarding every earlier update to it. */
+        void assign(Object value) {
+            this.assigned = true;
+            this.value = value;
+            this.mapper = null;
+            clearChildren();
+        }
+
+        /** Map over the object, after every earlier update to it. */
+        void map(Function<Object, Object> next) {
+            if (!children.isEmpty()) {
+                // Earlier updates to the fields must run first, so move them into the mapper.
+                final Node earlier = new Node(null);
+                earlier.assigned = assigned;
+                earlier.value = value;
+                earlier.mapper = mapper;
+                earlier.children.addAll(children);
+
+                assigned = false;
+                value = null;
+                mapper = old -> next.apply(earlier.apply(old));
+                clearChildren();
+            } else if (mapper != null) {
+                mapper = mapper.andThen(next);
+            } else {
+                mapper = next;
+            }
+        }
+
+        private void clearChildren() {
+            children.clear();
+            rebuild = null;
+        }
+
+        /** Apply the updates to an object, given the old object if it is needed. */
+        Object apply(Object old) {
+            Object current = assigned ? value : old;
+            if (mapper != null) {
+                current = mapper.apply(current);
+            }
+
+            if (children.isEmpty()) {
+                return current;
+            }
+
+            if (rebuild == null) {
+                rebuild = Rebuild.of(children);
+            }
+
+            return rebuild.apply(current);
+        }
+
+        /** Apply the updates to the field of this node in its parent, setting it through the lens of the node. */
+        Object applyIn(Object parent) {
+            // A plain set does not need the old value.
+            if (assigned && mapper == null && children.isEmpty()) {
+                return stage.set(value, parent);
+            }
+
+            final Object old = assigned ? null : stage.view(parent);
+            final Object updated = apply(old);
+            return !assigned && updated == old ? parent : stage.set(updated, parent);
+        }
+    }
+
+    /** How the fields of an object are rebuilt. */
+    private static final class Rebuild {
+        /** The nodes for components of one record, rebuilt together, or null if there are none. */
+        private final Node[] fused;
+
+        /** Handle rebuilding the record as <code>(Object, Object[])Object</code>, if any nodes are fused. */
+        private final MethodHandle handle;
+
+        /** The nodes for the other fields, set one after another. */
+        private final Node[] rest;
+
+        private Rebuild(Node[] fused, MethodHandle handle, Node[] rest) {
+            this.fused = fused;
+            this.handle = handle;
+            this.rest = rest;
+        }
+
+        /** Work out how to rebuild the fields of some nodes. */
+        static Rebuild of(List<Node> children) {
+            final List<Node> fused = new ArrayList<>();
+            final List<Node> rest = new ArrayList<>();
+            final int[] indices = new int[children.size()];
+
+            // Fuse the components of the first record found, as the nodes of one object can only be for one record.
+            RecordShape shape = null;
+            for (final Node child : children) {
+                final RecordShape.Component component = RecordShape.componentOf(child.stage);
+                if (component != null && (shape == null || shape == component.shape())
+                    && !contains(indices, fused.size(), component.index())) {
+                    shape = component.shape();
+                    indices[fused.size()] = component.index();
+                    fused.add(child);
+                } else {
+                    rest.add(child);
+                }
+            }
+
+            // A single component gains nothing from fusing.
+            if (fused.size() < 2) {
+                return new Rebuild(null, null, children.toArray(new Node[0]));
+            }
+
+            final int count = fused.size();
+            final int[] used = new int[count];
+            System.arraycopy(indices, 0, used, 0, count);
+
+            final MethodHandle handle = shape.rebuildWith(used)
+                .asType(MethodType.genericMethodType(count + 1))
+                .asSpreader(Object[].class, count);
+
+            return new Rebuild(fused.toArray(new Node[0]), handle, rest.toArray(new Node[0]));
+        }
+
+        private static boolean contains(int[] indices, int length, int index) {
+            for (int i = 0; i < length; ++i) {
+                if (indices[i] == index) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /** Apply the updates of every node to an object. */
+        Object apply(Object instance) {
+            Object current = instance;
+
+            if (fused != null) {
+                final Object[] values = new Object[fused.length];
+                boolean changed = false;
+                for (int i = 0; i < fused.length; ++i) {
+                    final Node node = fused[i];
+                    final Object old = node.assigned ? null : node.stage.view(current);
+                    values[i] = node.apply(old);
+                    changed |= node.assigned || values[i] != old;
+                }
+
+                if (changed) {
+                    current = invoke(current, values);
+                }
+            }
+
+            for (final Node node : rest) {
+                current = node.applyIn(current);
+            }
+
+            return current;
+        }
+
+        private Object invoke(Object record, Object[] values) {
+            try {
+                return (Object) handle.invokeExact(record, values);
+            } catch (Throwable t) {
+                throw LensHandles.rethrow(t);
+            }
+        }
+    }
+}
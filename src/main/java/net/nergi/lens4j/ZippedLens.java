@@ -0,0 +1,134 @@
+package net.nergi.lens4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sets the fields of several lenses on the same instance at once.
+ * <p>
+ * When every lens is a record component lens from {@link Lenses#forRecord} on the same record, the new instance is
+ * built with a single call to the canonical constructor. The same goes for lenses that run along the same path of
+ * lenses before ending on components of the same record: the path is walked once, and only the last record and its
+ * parents are rebuilt, once each. Otherwise, the lenses are set one after another.
+ */
+final class ZippedLens {
+    /** The lenses to set, in the order of the values given. */
+    private final Lens<Object, Object, Object, Object>[] lenses;
+
+    /** The lens leading to the record being rebuilt, or null if the record is the instance itself. */
+    private final Lens<Object, Object, Object, Object> prefix;
+
+    /** Handle rebuilding the record as <code>(Object, Object[])Object</code>, or null if the lenses cannot fuse. */
+    private final MethodHandle rebuild;
+
+    private ZippedLens(Lens<Object, Object, Object, Object>[] lenses, Lens<Object, Object, Object, Object> prefix,
+                       MethodHandle rebuild) {
+        this.lenses = lenses;
+        this.prefix = prefix;
+        this.rebuild = rebuild;
+    }
+
+    /**
+     * Prepare to set the fields of some lenses at once.
+     *
+     * @param lenses The lenses to set. The array must not be modified afterwards.
+     * @return An object setting the fields of all lenses.
+     * @throws IllegalArgumentException If some of the lenses focus on the same record component.
+     */
+    @SuppressWarnings("unchecked")
+    static ZippedLens of(Lens<?, ?, ?, ?>[] lenses) {
+        final Lens<Object, Object, Object, Object>[] erased = (Lens<Object, Object, Object, Object>[]) lenses;
+
+        // All lenses must be paths of the same length, sharing every stage but the last.
+        final Lens<Object, Object, Object, Object>[] path = erased[0].stages();
+        final int last = path.length - 1;
+        for (final Lens<Object, Object, Object, Object> lens : erased) {
+            final Lens<Object, Object, Object, Object>[] stages = lens.stages();
+            if (stages.length != path.length || !Arrays.equals(stages, 0, last, path, 0, last)) {
+                return new ZippedLens(erased, null, null);
+            }
+        }
+
+        // The last stages must all be components of the same record.
+        final RecordShape.Component first = RecordShape.componentOf(path[last]);
+        if (first == null) {
+            return new ZippedLens(erased, null, null);
+        }
+
+        final int[] indices = new int[erased.length];
+        for (int i = 0; i < erased.length; ++i) {
+            final RecordShape.Component component = RecordShape.componentOf(erased[i].stages()[last]);
+            if (component == null || component.shape() != first.shape()) {
+                return new ZippedLens(erased, null, null);
+            }
+
+            for (int j = 0; j < i; ++j) {
+                if (indices[j] == component.index()) {
+                    throw new IllegalArgumentException("Zipped lenses must focus on distinct record components.");
+                }
+            }
+            indices[i] = component.index();
+        }
+
+        final MethodHandle rebuild = first.shape().rebuildWith(indices)
+            .asType(MethodType.genericMethodType(indices.length + 1))
+            .asSpreader(Object[].class, indices.length);
+
+        final Lens<Object, Object, Object, Object> prefix = last == 0
+            ? null
+            : new Lens<>(new LensPath(Arrays.copyOf(path, last)));
+
+        return new ZippedLens(erased, prefix, rebuild);
+    }
+
+    /**
+     * View the fields of every lens.
+     *
+     * @param instance The instance to view.
+     * @return An unmodifiable list of the fields of each lens, in order.
+     */
+    @SuppressWarnings("unchecked")
+    <A> List<A> viewAll(Object instance) {
+        final Object[] values = new Object[lenses.length];
+        for (int i = 0; i < lenses.length; ++i) {
+            values[i] = lenses[i].view(instance);
+        }
+
+        return (List<A>) Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    /**
+     * Set the fields of every lens.
+     *
+     * @param values The new values for each lens, in order.
+     * @param instance The instance to set the fields of.
+     * @return A new instance with every field replaced.
+     */
+    @SuppressWarnings("unchecked")
+    <S> S set(Object[] values, S instance) {
+        if (rebuild == null) {
+            Object current = instance;
+            for (int i = 0; i < lenses.length; ++i) {
+                current = lenses[i].set(values[i], current);
+            }
+
+            return (S) current;
+        } else if (prefix == null) {
+            return (S) rebuild(instance, values);
+        }
+
+        return (S) prefix.set(rebuild(prefix.view(instance), values), instance);
+    }
+
+    /** Rebuild the record with the new values. */
+    private Object rebuild(Object record, Object[] values) {
+        try {
+            return (Object) rebuild.invokeExact(record, values);
+        } catch (Throwable t) {
+            throw LensHandles.rethrow(t);
+        }
+    }
+}
@@ -1,7 +1,18 @@
 package net.nergi.lens4j.extra;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * The Either sum type, for Java 17+.
@@ -62,6 +73,55 @@ public sealed interface Either<L, R> permits Left, Right {
         return new Right<>(item);
     }
 
+    /**
+     * Run a computation that may throw, turning any exception it throws into a {@link Left}.
+     * <p>
+     * Only {@link Exception}s are caught, so errors such as {@link OutOfMemoryError} still propagate. If the
+     * computation throws an {@link InterruptedException}, the interrupt flag of the current thread is set again before
+     * the exception is turned into a {@link Left}, so code further up can still see that the thread was interrupted.
+     * On paths where failures are common, throw a {@link Failure} from the computation, which skips the cost of
+     * filling in a stack trace.
+     *
+     * @param supplier The computation to run.
+     * @return A {@link Right} of the result, or a {@link Left} of the exception thrown.
+     * @param <R> The type of the result.
+     */
+    static <R> Either<Exception, R> attempt(ThrowingSupplier<? extends R> supplier) {
+        try {
+            return new Right<>(supplier.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Left<>(e);
+        } catch (Exception e) {
+            return new Left<>(e);
+        }
+    }
+
+    /**
+     * Run a computation that may throw, turning any exception it throws into a {@link Left} of some error.
+     * <p>
+     * As with {@link #attempt(ThrowingSupplier)}, an {@link InterruptedException} sets the interrupt flag of the
+     * current thread again before it is passed to <code>onFailure</code>.
+     *
+     * @param supplier The computation to run.
+     * @param onFailure Function turning the exception thrown into an error.
+     * @return A {@link Right} of the result, or a {@link Left} of the error.
+     * @param <L> The type of the error.
+     * @param <R> The type of the result.
+     * @see #attempt(ThrowingSupplier)
+     */
+    static <L, R> Either<L, R> attempt(ThrowingSupplier<? extends R> supplier,
+                                       Function<? super Exception, ? extends L> onFailure) {
+        try {
+            return new Right<>(supplier.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Left<>(onFailure.apply(e));
+        } catch (Exception e) {
+            return new Left<>(onFailure.apply(e));
+        }
+    }
+
     /**
      * An alias of {@link #toRight} to comply with Applicative rules.
      */
@@ -100,7 +160,7 @@ public sealed interface Either<L, R> permits Left, Right {
      */
     default <S> Either<L, S> map(Function<? super R, ? extends S> mapper) {
         if (this instanceof Left<L, R> left) {
-            return new Left<>(left.leftItem());
+            return retype(left);
         }
 
         // Must be a Right.
@@ -117,11 +177,515 @@ public sealed interface Either<L, R> permits Left, Right {
      */
     default <S> Either<L, S> flatMap(Function<? super R, ? extends Either<L, S>> mapper) {
         if (this instanceof Left<L, R> left) {
-            return new Left<>(left.leftItem());
+            return retype(left);
         }
 
         // Must be a right.
         final Right<L, R> right = (Right<L, R>) this;
         return mapper.apply(right.rightItem());
     }
+
+    /**
+     * Apply an either-producing function to every item, collecting the results if they are all {@link Right}.
+     * <p>
+     * The items are visited in order, stopping at the first {@link Left}, which is returned as-is. The results are
+     * collected into a list presized to the number of items, which is wrapped as an unmodifiable list without copying.
+     *
+     * @param items The items to apply the function to.
+     * @param mapper Function that produces either instances from an item.
+     * @return A {@link Right} of the list of results, or the first {@link Left} produced.
+     * @param <L> The left type.
+     * @param <A> The type of the items.
+     * @param <B> The type of the results.
+     */
+    static <L, A, B> Either<L, List<B>> traverse(Iterable<? extends A> items,
+                                                Function<? super A, ? extends Either<L, ? extends B>> mapper) {
+        final int size = items instanceof Collection<?> collection ? collection.size() : -1;
+        return traverse(items.iterator(), size, mapper);
+    }
+
+    /**
+     * Apply an either-producing function to every item of an array, collecting the results if they are all
+     * {@link Right}.
+     *
+     * @param items The items to apply the function to.
+     * @param mapper Function that produces either instances from an item.
+     * @return A {@link Right} of the list of results, or the first {@link Left} produced.
+     * @param <L> The left type.
+     * @param <A> The type of the items.
+     * @param <B> The type of the results.
+     * @see #traverse(Iterable, Function)
+     */
+    static <L, A, B> Either<L, List<B>> traverse(A[] items,
+                                                Function<? super A, ? extends Either<L, ? extends B>> mapper) {
+        return traverse(Arrays.asList(items).iterator(), items.length, mapper);
+    }
+
+    /**
+     * Apply an either-producing function to every item of a stream, collecting the results if they are all
+     * {@link Right}.
+     * <p>
+     * The stream is consumed lazily, so no items are taken from it after the first {@link Left}. The results are
+     * presized if the stream knows its exact size.
+     *
+     * @param items The items to apply the function to.
+     * @param mapper Function that produces either instances from an item.
+     * @return A {@link Right} of the list of results, or the first {@link Left} produced.
+     * @param <L> The left type.
+     * @param <A> The type of the items.
+     * @param <B> The type of the results.
+     * @see #traverse(Iterable, Function)
+     */
+    static <L, A, B> Either<L, List<B>> traverse(Stream<? extends A> items,
+                                                Function<? super A, ? extends Either<L, ? extends B>> mapper) {
+        final Spliterator<? extends A> spliterator = items.spliterator();
+        final long size = spliterator.getExactSizeIfKnown();
+        final int capacity = size > Integer.MAX_VALUE ? -1 : (int) size;
+
+        return traverse(Spliterators.iterator(spliterator), capacity, mapper);
+    }
+
+    /**
+     * Apply an either-producing function to every item in parallel on the common pool, collecting the results if they
+     * are all {@link Right}.
+     *
+     * @param items The items to apply the function to.
+     * @param mapper Function that produces either instances from an item, which must be safe to call concurrently.
+     * @return A {@link Right} of the list of results in encounter order, or the leftmost {@link Left} produced.
+     * @param <L> The left type.
+     * @param <A> The type of the items.
+     * @param <B> The type of the results.
+     * @see #traverseParallel(Collection, Function, ForkJoinPool)
+     */
+    static <L, A, B> Either<L, List<B>> traverseParallel(Collection<? extends A> items,
+                                                        Function<? super A, ? extends Either<L, ? extends B>> mapper) {
+        return traverseParallel(items, mapper, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Apply an either-producing function to every item in parallel, collecting the results if they are all
+     * {@link Right}.
+     * <p>
+     * This is worth it when the function is expensive: the items are split into tasks on the pool, and once a
+     * {@link Left} is found, no more items to the right of it are visited. The result is always the same as
+     * {@link #traverse(Iterable, Function)}, with the results in encounter order and the leftmost {@link Left} winning.
+     * Each result is written straight into its place in the list, which is never copied.
+     *
+     * @param items The items to apply the function to.
+     * @param mapper Function that produces either instances from an item, which must be safe to call concurrently.
+     * @param pool The pool to run the function in.
+     * @return A {@link Right} of the list of results in encounter order, or the leftmost {@link Left} produced.
+     * @param <L> The left type.
+     * @param <A> The type of the items.
+     * @param <B> The type of the results.
+     */
+    static <L, A, B> Either<L, List<B>> traverseParallel(Collection<? extends A> items,
+                                                        Function<? super A, ? extends Either<L, ? extends B>> mapper,
+                                                        ForkJoinPool pool) {
+        return ParallelTraverse.traverse(items, mapper, pool);
+    }
+
+    /**
+     * Collect the items of every {@link Right}, stopping at the first {@link Left}.
+     *
+     * @param items The either instances to collect.
+     * @return A {@link Right} of the list of items, or the first {@link Left}.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     * @see #traverse(Iterable, Function)
+     */
+    static <L, R> Either<L, List<R>> sequence(Iterable<? extends Either<L, ? extends R>> items) {
+        return traverse(items, Function.identity());
+    }
+
+    /**
+     * Collect the items of every {@link Right} in an array, stopping at the first {@link Left}.
+     *
+     * @param items The either instances to collect.
+     * @return A {@link Right} of the list of items, or the first {@link Left}.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     * @see #traverse(Iterable, Function)
+     */
+    static <L, R> Either<L, List<R>> sequence(Either<L, ? extends R>[] items) {
+        return traverse(items, Function.identity());
+    }
+
+    /**
+     * Collect the items of every {@link Right} in a stream, stopping at the first {@link Left}.
+     *
+     * @param items The either instances to collect.
+     * @return A {@link Right} of the list of items, or the first {@link Left}.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     * @see #traverse(Stream, Function)
+     */
+    static <L, R> Either<L, List<R>> sequence(Stream<? extends Either<L, ? extends R>> items) {
+        return traverse(items, Function.identity());
+    }
+
+    /**
+     * Combine the items of two {@link Right} instances with a function.
+     * <p>
+     * Unlike nesting {@link #flatMap} calls, this allocates nothing but the resulting {@link Right}. The arguments are
+     * checked in order, and the first {@link Left} among them is returned as-is.
+     *
+     * @param a The first either instance.
+     * @param b The second either instance.
+     * @param combiner Function combining the items.
+     * @return A {@link Right} of the combined items, or the first {@link Left} given.
+     * @param <L> The left type.
+     * @param <A> The type stored in the first {@link Right}.
+     * @param <B> The type stored in the second {@link Right}.
+     * @param <R> The type of the combined result.
+     */
+    static <L, A, B, R> Either<L, R> map2(Either<L, ? extends A> a, Either<L, ? extends B> b,
+                                          BiFunction<? super A, ? super B, ? extends R> combiner) {
+        if (a instanceof Left<L, ? extends A> left) {
+            return retype(left);
+        }
+
+        if (b instanceof Left<L, ? extends B> left) {
+            return retype(left);
+        }
+
+        return new Right<>(combiner.apply(a.fromRight(), b.fromRight()));
+    }
+
+    /**
+     * Combine the items of three {@link Right} instances with a function.
+     *
+     * @param a The first either instance.
+     * @param b The second either instance.
+     * @param c The third either instance.
+     * @param combiner Function combining the items.
+     * @return A {@link Right} of the combined items, or the first {@link Left} given.
+     * @param <L> The left type.
+     * @param <A> The type stored in the first {@link Right}.
+     * @param <B> The type stored in the second {@link Right}.
+     * @param <C> The type stored in the third {@link Right}.
+     * @param <R> The type of the combined result.
+     * @see #map2
+     */
+    static <L, A, B, C, R> Either<L, R> map3(Either<L, ? extends A> a, Either<L, ? extends B> b,
+                                             Either<L, ? extends C> c,
+                                             Function3<? super A, ? super B, ? super C, ? extends R> combiner) {
+        if (a instanceof Left<L, ? extends A> left) {
+            return retype(left);
+        }
+
+        if (b instanceof Left<L, ? extends B> left) {
+            return retype(left);
+        }
+
+        if (c instanceof Left<L, ? extends C> left) {
+            return retype(left);
+        }
+
+        return new Right<>(combiner.apply(a.fromRight(), b.fromRight(), c.fromRight()));
+    }
+
+    /**
+     * Combine the items of four {@link Right} instances with a function.
+     *
+     * @param a The first either instance.
+     * @param b The second either instance.
+     * @param c The third either instance.
+     * @param d The fourth either instance.
+     * @param combiner Function combining the items.
+     * @return A {@link Right} of the combined items, or the first {@link Left} given.
+     * @param <L> The left type.
+     * @param <A> The type stored in the first {@link Right}.
+     * @param <B> The type stored in the second {@link Right}.
+     * @param <C> The type stored in the third {@link Right}.
+     * @param <D> The type stored in the fourth {@link Right}.
+     * @param <R> The type of the combined result.
+     * @see #map2
+     */
+    static <L, A, B, C, D, R> Either<L, R> map4(Either<L, ? extends A> a, Either<L, ? extends B> b,
+                                                Either<L, ? extends C> c, Either<L, ? extends D> d,
+                                                Function4<? super A, ? super B, ? super C, ? super D,
+                                                          ? extends R> combiner) {
+        if (a instanceof Left<L, ? extends A> left) {
+            return retype(left);
+        }
+
+        if (b instanceof Left<L, ? extends B> left) {
+            return retype(left);
+        }
+
+        if (c instanceof Left<L, ? extends C> left) {
+            return retype(left);
+        }
+
+        if (d instanceof Left<L, ? extends D> left) {
+            return retype(left);
+        }
+
+        return new Right<>(combiner.apply(a.fromRight(), b.fromRight(), c.fromRight(), d.fromRight()));
+    }
+
+    /**
+     * Combine the items of five {@link Right} instances with a function.
+     *
+     * @param a The first either instance.
+     * @param b The second either instance.
+     * @param c The third either instance.
+     * @param d The fourth either instance.
+     * @param e The fifth either instance.
+     * @param combiner Function combining the items.
+     * @return A {@link Right} of the combined items, or the first {@link Left} given.
+     * @param <L> The left type.
+     * @param <A> The type stored in the first {@link Right}.
+     * @param <B> The type stored in the second {@link Right}.
+     * @param <C> The type stored in the third {@link Right}.
+     * @param <D> The type stored in the fourth {@link Right}.
+     * @param <E> The type stored in the fifth {@link Right}.
+     * @param <R> The type of the combined result.
+     * @see #map2
+     */
+    static <L, A, B, C, D, E, R> Either<L, R> map5(Either<L, ? extends A> a, Either<L, ? extends B> b,
+                                                   Either<L, ? extends C> c, Either<L, ? extends D> d,
+                                                   Either<L, ? extends E> e,
+                                                   Function5<? super A, ? super B, ? super C, ? super D, ? super E,
+                                                             ? extends R> combiner) {
+        if (a instanceof Left<L, ? extends A> left) {
+            return retype(left);
+        }
+
+        if (b instanceof Left<L, ? extends B> left) {
+            return retype(left);
+        }
+
+        if (c instanceof Left<L, ? extends C> left) {
+            return retype(left);
+        }
+
+        if (d instanceof Left<L, ? extends D> left) {
+            return retype(left);
+        }
+
+        if (e instanceof Left<L, ? extends E> left) {
+            return retype(left);
+        }
+
+        return new Right<>(combiner.apply(a.fromRight(), b.fromRight(), c.fromRight(), d.fromRight(), e.fromRight()));
+    }
+
+    /**
+     * Combine the items of six {@link Right} instances with a function.
+     *
+     * @param a The first either instance.
+     * @param b The second either instance.
+     * @param c The third either instance.
+     * @param d The fourth either instance.
+     * @param e The fifth either instance.
+     * @param f The sixth either instance.
+     * @param combiner Function combining the items.
+     * @return A {@link Right} of the combined items, or the first {@link Left} given.
+     * @param <L> The left type.
+     * @param <A> The type stored in the first {@link Right}.
+     * @param <B> The type stored in the second {@link Right}.
+     * @param <C> The type stored in the third {@link Right}.
+     * @param <D> The type stored in the fourth {@link Right}.
+     * @param <E> The type stored in the fifth {@link Right}.
+     * @param <F> The type stored in the sixth {@link Right}.
+     * @param <R> The type of the combined result.
+     * @see #map2
+     */
+    static <L, A, B, C, D, E, F, R> Either<L, R> map6(Either<L, ? extends A> a, Either<L, ? extends B> b,
+                                                      Either<L, ? extends C> c, Either<L, ? extends D> d,
+                                                      Either<L, ? extends E> e, Either<L, ? extends F> f,
+                                                      Function6<? super A, ? super B, ? super C, ? super D, ? super E,
+                                                                ? super F, ? extends R> combiner) {
+        if (a instanceof Left<L, ? extends A> left) {
+            return retype(left);
+        }
+
+        if (b instanceof Left<L, ? extends B> left) {
+            return retype(left);
+        }
+
+        if (c instanceof Left<L, ? extends C> left) {
+            return retype(left);
+        }
+
+        if (d instanceof Left<L, ? extends D> left) {
+            return retype(left);
+        }
+
+        if (e instanceof Left<L, ? extends E> left) {
+            return retype(left);
+        }
+
+        if (f instanceof Left<L, ? extends F> left) {
+            return retype(left);
+        }
+
+        return new Right<>(combiner.apply(
+            a.fromRight(), b.fromRight(), c.fromRight(), d.fromRight(), e.fromRight(), f.fromRight()));
+    }
+
+    /**
+     * Combine the items of seven {@link Right} instances with a function.
+     *
+     * @param a The first either instance.
+     * @param b The second either instance.
+     * @param c The third either instance.
+     * @param d The fourth either instance.
+     * @param e The fifth either instance.
+     * @param f The sixth either instance.
+     * @param g The seventh either instance.
+     * @param combiner Function combining the items.
+     * @return A {@link Right} of the combined items, or the first {@link Left} given.
+     * @param <L> The left type.
+     * @param <A> The type stored in the first {@link Right}.
+     * @param <B> The type stored in the second {@link Right}.
+     * @param <C> The type stored in the third {@link Right}.
+     * @param <D> The type stored in the fourth {@link Right}.
+     * @param <E> The type stored in the fifth {@link Right}.
+     * @param <F> The type stored in the sixth {@link Right}.
+     * @param <G> The type stored in the seventh {@link Right}.
+     * @param <R> The type of the combined result.
+     * @see #map2
+     */
+    static <L, A, B, C, D, E, F, G, R> Either<L, R> map7(Either<L, ? extends A> a, Either<L, ? extends B> b,
+                                                         Either<L, ? extends C> c, Either<L, ? extends D> d,
+                                                         Either<L, ? extends E> e, Either<L, ? extends F> f,
+                                                         Either<L, ? extends G> g,
+                                                         Function7<? super A, ? super B, ? super C, ? super D,
+                                                                   ? super E, ? super F, ? super G,
+                                                                   ? extends R> combiner) {
+        if (a instanceof Left<L, ? extends A> left) {
+            return retype(left);
+        }
+
+        if (b instanceof Left<L, ? extends B> left) {
+            return retype(left);
+        }
+
+        if (c instanceof Left<L, ? extends C> left) {
+            return retype(left);
+        }
+
+        if (d instanceof Left<L, ? extends D> left) {
+            return retype(left);
+        }
+
+        if (e instanceof Left<L, ? extends E> left) {
+            return retype(left);
+        }
+
+        if (f instanceof Left<L, ? extends F> left) {
+            return retype(left);
+        }
+
+        if (g instanceof Left<L, ? extends G> left) {
+            return retype(left);
+        }
+
+        return new Right<>(combiner.apply(
+            a.fromRight(), b.fromRight(), c.fromRight(), d.fromRight(), e.fromRight(), f.fromRight(), g.fromRight()));
+    }
+
+    /**
+     * Combine the items of eight {@link Right} instances with a function.
+     *
+     * @param a The first either instance.
+     * @param b The second either instance.
+     * @param c The third either instance.
+     * @param d The fourth either instance.
+     * @param e The fifth either instance.
+     * @param f The sixth either instance.
+     * @param g The seventh either instance.
+     * @param h The eighth either instance.
+     * @param combiner Function combining the items.
+     * @return A {@link Right} of the combined items, or the first {@link Left} given.
+     * @param <L> The left type.
+     * @param <A> The type stored in the first {@link Right}.
+     * @param <B> The type stored in the second {@link Right}.
+     * @param <C> The type stored in the third {@link Right}.
+     * @param <D> The type stored in the fourth {@link Right}.
+     * @param <E> The type stored in the fifth {@link Right}.
+     * @param <F> The type stored in the sixth {@link Right}.
+     * @param <G> The type stored in the seventh {@link Right}.
+     * @param <H> The type stored in the eighth {@link Right}.
+     * @param <R> The type of the combined result.
+     * @see #map2
+     */
+    static <L, A, B, C, D, E, F, G, H, R> Either<L, R> map8(Either<L, ? extends A> a, Either<L, ? extends B> b,
+                                                            Either<L, ? extends C> c, Either<L, ? extends D> d,
+                                                            Either<L, ? extends E> e, Either<L, ? extends F> f,
+                                                            Either<L, ? extends G> g, Either<L, ? extends H> h,
+                                                            Function8<? super A, ? super B, ? super C, ? super D,
+                                                                      ? super E, ? super F, ? super G, ? super H,
+                                                                      ? extends R> combiner) {
+        if (a instanceof Left<L, ? extends A> left) {
+            return retype(left);
+        }
+
+        if (b instanceof Left<L, ? extends B> left) {
+            return retype(left);
+        }
+
+        if (c instanceof Left<L, ? extends C> left) {
+            return retype(left);
+        }
+
+        if (d instanceof Left<L, ? extends D> left) {
+            return retype(left);
+        }
+
+        if (e instanceof Left<L, ? extends E> left) {
+            return retype(left);
+        }
+
+        if (f instanceof Left<L, ? extends F> left) {
+            return retype(left);
+        }
+
+        if (g instanceof Left<L, ? extends G> left) {
+            return retype(left);
+        }
+
+        if (h instanceof Left<L, ? extends H> left) {
+            return retype(left);
+        }
+
+        return new Right<>(combiner.apply(
+            a.fromRight(), b.fromRight(), c.fromRight(), d.fromRight(),
+            e.fromRight(), f.fromRight(), g.fromRight(), h.fromRight()));
+    }
+
+    /** Apply a function to every item, collecting the results into a list presized to the number of items if known. */
+    private static <L, A, B> Either<L, List<B>> traverse(Iterator<? extends A> items, int size,
+                                                         Function<? super A, ? extends Either<L, ? extends B>> mapper) {
+        final List<B> results = size < 0 ? new ArrayList<>() : new ArrayList<>(size);
+        while (items.hasNext()) {
+            final Either<L, ? extends B> result = mapper.apply(items.next());
+            if (result instanceof Left<L, ? extends B> left) {
+                return retype(left);
+            }
+
+            results.add(result.fromRight());
+        }
+
+        return new Right<>(Collections.unmodifiableList(results));
+    }
+
+    /**
+     * Reuse a {@link Left} as a left of another right type.
+     * <p>
+     * The right type of a {@link Left} is only a phantom type, so no instance of it is ever stored, and the cast is
+     * safe. This saves a short-circuiting chain from allocating a new {@link Left} at every step.
+     *
+     * @param left The left to reuse.
+     * @return The same left instance.
+     * @param <L> The type of the item in the left.
+     * @param <S> The new phantom right type.
+     */
+    @SuppressWarnings("unchecked")
+    private static <L, S> Either<L, S> retype(Left<L, ?> left) {
+        return (Either<L, S>) left;
+    }
 }
@@ -0,0 +1,136 @@
+package net.nergi.lens4j.extra;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import net.nergi.lens4j.Pair;
+
+/**
+ * Collectors splitting a stream of {@link Either} instances into its lefts and rights in a single pass.
+ * <p>
+ * Filtering a stream once for lefts and once for rights traverses it twice. These collectors sort each item into the
+ * right place as it goes by instead. Each thread of a parallel stream fills its own container, and containers are
+ * merged in encounter order, so no locking is needed and the results are the same as for a sequential stream.
+ */
+public final class EitherCollectors {
+    private EitherCollectors() {
+        // This class cannot be instantiated.
+    }
+
+    /**
+     * Split a stream into a list of the items of its lefts, and a list of the items of its rights.
+     *
+     * @return A collector giving a pair of the unmodifiable lists of left and right items, in encounter order.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     */
+    public static <L, R> Collector<Either<? extends L, ? extends R>, ?, Pair<List<L>, List<R>>> partition() {
+        return Collector.<Either<? extends L, ? extends R>, Partition<L, R>, Pair<List<L>, List<R>>>of(
+            Partition::new,
+            Partition::add,
+            Partition::merge,
+            partition -> new Pair<>(Collections.unmodifiableList(partition.lefts),
+                Collections.unmodifiableList(partition.rights)));
+    }
+
+    /**
+     * Split a stream into its left and right items, collecting each side with its own collector.
+     *
+     * @param lefts The collector for the items of the lefts.
+     * @param rights The collector for the items of the rights.
+     * @return A collector giving a pair of the results of both collectors.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     * @param <X> The result type of the collector for the lefts.
+     * @param <Y> The result type of the collector for the rights.
+     */
+    public static <L, R, X, Y> Collector<Either<? extends L, ? extends R>, ?, Pair<X, Y>> partitioning(
+        Collector<? super L, ?, X> lefts, Collector<? super R, ?, Y> rights) {
+        return partitioningWith(lefts, rights);
+    }
+
+    /**
+     * Collect the items of the rights of a stream, only counting its lefts.
+     * <p>
+     * The items of the lefts are never stored, so this is cheaper than {@link #partition} when the errors themselves
+     * are not needed.
+     *
+     * @return A collector giving a pair of the unmodifiable list of right items in encounter order, and the number of
+     *     lefts.
+     * @param <R> The right type.
+     */
+    public static <R> Collector<Either<?, ? extends R>, ?, Pair<List<R>, Long>> rightsCountingLefts() {
+        return Collector.<Either<?, ? extends R>, Partition<Void, R>, Pair<List<R>, Long>>of(
+            Partition::new,
+            Partition::count,
+            Partition::merge,
+            partition -> new Pair<>(Collections.unmodifiableList(partition.rights), partition.leftCount));
+    }
+
+    /** Split a stream with two downstream collectors, capturing their container types. */
+    private static <L, R, X, Y, P, Q> Collector<Either<? extends L, ? extends R>, ?, Pair<X, Y>> partitioningWith(
+        Collector<? super L, P, X> lefts, Collector<? super R, Q, Y> rights) {
+        final Supplier<P> leftSupplier = lefts.supplier();
+        final Supplier<Q> rightSupplier = rights.supplier();
+        final BiConsumer<P, ? super L> leftAccumulator = lefts.accumulator();
+        final BiConsumer<Q, ? super R> rightAccumulator = rights.accumulator();
+        final BinaryOperator<P> leftCombiner = lefts.combiner();
+        final BinaryOperator<Q> rightCombiner = rights.combiner();
+        final Function<P, X> leftFinisher = lefts.finisher();
+        final Function<Q, Y> rightFinisher = rights.finisher();
+
+        return Collector.<Either<? extends L, ? extends R>, Pair<P, Q>, Pair<X, Y>>of(
+            () -> new Pair<>(leftSupplier.get(), rightSupplier.get()),
+            (containers, either) -> {
+                if (either instanceof Left<? extends L, ? extends R> left) {
+                    leftAccumulator.accept(containers.first(), left.leftItem());
+                } else {
+                    rightAccumulator.accept(containers.second(), either.fromRight());
+                }
+            },
+            (first, second) -> new Pair<>(leftCombiner.apply(first.first(), second.first()),
+                rightCombiner.apply(first.second(), second.second())),
+            containers -> new Pair<>(leftFinisher.apply(containers.first()),
+                rightFinisher.apply(containers.second())));
+    }
+
+    /** The lefts and rights collected by one thread. */
+    private static final class Partition<L, R> {
+        /** The items of the lefts, in encounter order. */
+        private final List<L> lefts = new ArrayList<>();
+
+        /** The items of the rights, in encounter order. */
+        private final List<R> rights = new ArrayList<>();
+
+        /** The number of lefts seen, when their items are not kept. */
+        private long leftCount = 0;
+
+        void add(Either<? extends L, ? extends R> either) {
+            if (either instanceof Left<? extends L, ? extends R> left) {
+                lefts.add(left.leftItem());
+            } else {
+                rights.add(either.fromRight());
+            }
+        }
+
+        void count(Either<?, ? extends R> either) {
+            if (either.isLeft()) {
+                ++leftCount;
+            } else {
+                rights.add(either.fromRight());
+            }
+        }
+
+        Partition<L, R> merge(Partition<L, R> other) {
+            lefts.addAll(other.lefts);
+            rights.addAll(other.rights);
+            leftCount += other.leftCount;
+            return this;
+        }
+    }
+}
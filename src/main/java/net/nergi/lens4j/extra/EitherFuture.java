@@ -0,0 +1,214 @@
+package net.nergi.lens4j.extra;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An {@link Either} that will be available in the future, for pipelines of fallible asynchronous steps.
+ * <p>
+ * This wraps a {@link CompletableFuture} of an {@link Either}. Each step of a pipeline is scheduled to run on an
+ * executor once the step before it completes with a {@link Right}, so no thread is ever blocked waiting for the
+ * previous step. A {@link Left} skips every step after it without scheduling anything, and is passed along as-is.
+ * <p>
+ * Unless another executor is given, steps run on a new virtual thread each when the runtime supports virtual threads,
+ * and on the {@link ForkJoinPool#commonPool common pool} otherwise. Blocking steps, such as I/O, should be given a
+ * suitable executor if virtual threads are not available.
+ *
+ * @param <L> The left type, usually representative of some kind of error.
+ * @param <R> The right type, usually representative of the result of a successful computation.
+ */
+public final class EitherFuture<L, R> {
+    /** The eventual result. */
+    private final CompletableFuture<Either<L, R>> future;
+
+    /** The executor running the steps after this one. */
+    private final Executor executor;
+
+    private EitherFuture(CompletableFuture<Either<L, R>> future, Executor executor) {
+        this.future = future;
+        this.executor = executor;
+    }
+
+    /**
+     * Wrap a future of an either, running later steps on the default executor.
+     *
+     * @param future The future to wrap.
+     * @return The wrapped future.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     */
+    public static <L, R> EitherFuture<L, R> of(CompletableFuture<Either<L, R>> future) {
+        return new EitherFuture<>(future, defaultExecutor());
+    }
+
+    /**
+     * Wrap an either that is already available, running later steps on the default executor.
+     *
+     * @param either The either to wrap.
+     * @return A completed future of the either.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     */
+    public static <L, R> EitherFuture<L, R> completed(Either<L, R> either) {
+        return of(CompletableFuture.completedFuture(either));
+    }
+
+    /**
+     * Run a fallible computation on the default executor.
+     *
+     * @param supplier The computation to run.
+     * @return A future of the result of the computation.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     */
+    public static <L, R> EitherFuture<L, R> supplyAsync(Supplier<? extends Either<L, R>> supplier) {
+        return supplyAsync(supplier, defaultExecutor());
+    }
+
+    /**
+     * Run a fallible computation on an executor, which also runs every later step.
+     *
+     * @param supplier The computation to run.
+     * @param executor The executor to run the computation and later steps on.
+     * @return A future of the result of the computation.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     */
+    public static <L, R> EitherFuture<L, R> supplyAsync(Supplier<? extends Either<L, R>> supplier, Executor executor) {
+        return new EitherFuture<>(CompletableFuture.<Either<L, R>>supplyAsync(supplier::get, executor), executor);
+    }
+
+    /**
+     * Get the executor used by default, which starts a virtual thread per step if possible.
+     *
+     * @return The default executor.
+     */
+    public static Executor defaultExecutor() {
+        return DefaultExecutor.INSTANCE;
+    }
+
+    /**
+     * Run the steps after this one on another executor.
+     *
+     * @param executor The executor to run later steps on.
+     * @return A future of the same result.
+     */
+    public EitherFuture<L, R> withExecutor(Executor executor) {
+        return new EitherFuture<>(future, executor);
+    }
+
+    /**
+     * Map over the result once it is available, if it is a {@link Right}.
+     *
+     * @param mapper Function to map over the item with, run on the executor.
+     * @return A future of the mapped result, or of the same {@link Left}.
+     * @param <S> New type stored in the mapped {@link Right}.
+     */
+    public <S> EitherFuture<L, S> map(Function<? super R, ? extends S> mapper) {
+        return then((item, next) -> next.complete(new Right<>(mapper.apply(item))));
+    }
+
+    /**
+     * Sequence a fallible computation after this one, if the result is a {@link Right}.
+     *
+     * @param mapper Function producing either instances from the item, run on the executor.
+     * @return A future of the result of the function, or of the same {@link Left}.
+     * @param <S> New type stored in the resulting {@link Right}.
+     */
+    public <S> EitherFuture<L, S> flatMapEither(Function<? super R, ? extends Either<L, S>> mapper) {
+        return then((item, next) -> next.complete(mapper.apply(item)));
+    }
+
+    /**
+     * Sequence an asynchronous fallible computation after this one, if the result is a {@link Right}.
+     *
+     * @param mapper Function starting the next computation from the item, run on the executor.
+     * @return A future of the result of the next computation, or of the same {@link Left}.
+     * @param <S> New type stored in the resulting {@link Right}.
+     */
+    public <S> EitherFuture<L, S> flatMap(Function<? super R, ? extends EitherFuture<L, S>> mapper) {
+        return then((item, next) -> mapper.apply(item).toCompletableFuture().whenComplete((result, error) -> {
+            if (error != null) {
+                next.completeExceptionally(error);
+            } else {
+                next.complete(result);
+            }
+        }));
+    }
+
+    /**
+     * Get the underlying future.
+     *
+     * @return The future of the result.
+     */
+    public CompletableFuture<Either<L, R>> toCompletableFuture() {
+        return future;
+    }
+
+    /**
+     * Wait for the result.
+     * <p>
+     * This blocks the calling thread, so should only be used at the very end of a pipeline.
+     *
+     * @return The result.
+     * @see CompletableFuture#join
+     */
+    public Either<L, R> join() {
+        return future.join();
+    }
+
+    /**
+     * Schedule the next step once this one completes, skipping it for a {@link Left}.
+     *
+     * @param step Function running the next step from the item of a {@link Right}, and completing the given future
+     *     with its result.
+     * @return A future of the result of the next step.
+     */
+    @SuppressWarnings("unchecked")
+    private <S> EitherFuture<L, S> then(BiConsumer<? super R, CompletableFuture<Either<L, S>>> step) {
+        final CompletableFuture<Either<L, S>> next = new CompletableFuture<>();
+
+        future.whenComplete((either, error) -> {
+            if (error != null) {
+                next.completeExceptionally(error);
+            } else if (either instanceof Left<L, R>) {
+                // The right type of a Left is only a phantom type, so it can be passed along without copying it.
+                next.complete((Either<L, S>) (Either<L, ?>) either);
+            } else {
+                try {
+                    executor.execute(() -> {
+                        try {
+                            step.accept(either.fromRight(), next);
+                        } catch (Throwable t) {
+                            next.completeExceptionally(t);
+                        }
+                    });
+                } catch (Throwable t) {
+                    // The executor rejected the step.
+                    next.completeExceptionally(t);
+                }
+            }
+        });
+
+        return new EitherFuture<>(next, executor);
+    }
+
+    /** Holds the default executor, which is only looked up once it is first needed. */
+    private static final class DefaultExecutor {
+        private static final Executor INSTANCE = create();
+
+        /** Use a virtual thread per task if the runtime supports it, or the common pool otherwise. */
+        private static Executor create() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+                return ForkJoinPool.commonPool();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.nergi.lens4j.extra;
+
+import net.nergi.lens4j.Prism;
+
+/**
+ * Prisms focusing on the cases of an {@link Either}.
+ * <p>
+ * The prisms here hold no state, so each is created once and shared by every type it is used with.
+ */
+public final class EitherPrisms {
+    /** The prism focusing on the {@link Left} case of an {@link Either}. */
+    private static final Prism<Either<Object, Object>, Object> LEFT =
+        new Prism<>(Either::isLeft, Either::fromLeft, Left::new);
+
+    /** The prism focusing on the {@link Right} case of an {@link Either}. */
+    private static final Prism<Either<Object, Object>, Object> RIGHT =
+        new Prism<>(Either::isRight, Either::fromRight, Right::new);
+
+    private EitherPrisms() {
+        // This class cannot be instantiated.
+    }
+
+    /**
+     * Get a prism focusing on the item of a {@link Left}.
+     *
+     * @return The prism.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <L, R> Prism<Either<L, R>, L> left() {
+        return (Prism<Either<L, R>, L>) (Prism<?, ?>) LEFT;
+    }
+
+    /**
+     * Get a prism focusing on the item of a {@link Right}.
+     *
+     * @return The prism.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <L, R> Prism<Either<L, R>, R> right() {
+        return (Prism<Either<L, R>, R>) (Prism<?, ?>) RIGHT;
+    }
+}
@@ -0,0 +1,227 @@
+package net.nergi.lens4j.extra;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A fallible computation described as data, which runs in constant stack space however deeply its steps nest.
+ * <p>
+ * Recursive algorithms written with {@link Either#flatMap}, such as tree walks and interpreters, nest a call for
+ * every level, and overflow the stack past a few thousand levels. A program instead records each step as an object,
+ * and {@link #run} evaluates them in a loop, keeping the steps still to be run on a stack of its own in the heap.
+ * Recursive calls should be wrapped in {@link #defer}, so building the program does not recurse either.
+ * <p>
+ * The loop allocates nothing per step beyond what the steps themselves do: the stack is an array which only grows
+ * when it is full, results are passed between steps unwrapped, and only the final {@link Right} is allocated. A
+ * {@link Left} produced by any step skips every step after it, and is returned as-is.
+ * <p>
+ * Programs are immutable, and can be run any number of times.
+ *
+ * @param <L> The left type, usually representative of some kind of error.
+ * @param <R> The right type, usually representative of the result of a successful computation.
+ */
+public abstract class EitherProgram<L, R> {
+    /** The number of steps the stack of a run holds before it first grows. */
+    private static final int INITIAL_STACK = 16;
+
+    private EitherProgram() {
+    }
+
+    /**
+     * Create a program resulting in an either instance.
+     *
+     * @param either The result of the program.
+     * @return The program.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     */
+    public static <L, R> EitherProgram<L, R> of(Either<L, R> either) {
+        return new Done<>(either);
+    }
+
+    /**
+     * Create a program resulting in a {@link Right}.
+     *
+     * @param item Item the program results in.
+     * @return The program.
+     * @param <L> Phantom type used for type-checking the error result.
+     * @param <R> The type of the item.
+     */
+    public static <L, R> EitherProgram<L, R> right(R item) {
+        return new Pure<>(item);
+    }
+
+    /**
+     * Create a program resulting in a {@link Left}.
+     *
+     * @param item Item the program fails with.
+     * @return The program.
+     * @param <L> The type of the item.
+     * @param <R> Phantom type used for type-checking the successful result.
+     */
+    public static <L, R> EitherProgram<L, R> left(L item) {
+        return new Done<>(new Left<>(item));
+    }
+
+    /**
+     * Create a program which builds another program only once it is run, for recursive calls.
+     *
+     * @param supplier Function building the program to run.
+     * @return The program.
+     * @param <L> The left type.
+     * @param <R> The right type.
+     */
+    public static <L, R> EitherProgram<L, R> defer(Supplier<? extends EitherProgram<L, R>> supplier) {
+        return new Defer<>(supplier);
+    }
+
+    /**
+     * Map over the result of this program, if it is a {@link Right}.
+     *
+     * @param mapper Function to map over the item with.
+     * @return A program resulting in the mapped item, or in the same {@link Left}.
+     * @param <S> New type stored in the mapped {@link Right}.
+     */
+    public <S> EitherProgram<L, S> map(Function<? super R, ? extends S> mapper) {
+        return new Bind<>(this, mapper, Bind.MAP);
+    }
+
+    /**
+     * Sequence another program after this one, if the result is a {@link Right}.
+     *
+     * @param mapper Function producing the next program from the item.
+     * @return A program resulting in the result of the next program, or in the same {@link Left}.
+     * @param <S> New type stored in the resulting {@link Right}.
+     */
+    public <S> EitherProgram<L, S> flatMap(Function<? super R, ? extends EitherProgram<L, S>> mapper) {
+        return new Bind<>(this, mapper, Bind.FLAT_MAP);
+    }
+
+    /**
+     * Sequence a fallible computation after this one, if the result is a {@link Right}.
+     * <p>
+     * This is cheaper than wrapping the results of the computation with {@link #of}.
+     *
+     * @param mapper Function producing either instances from the item.
+     * @return A program resulting in the result of the function, or in the same {@link Left}.
+     * @param <S> New type stored in the resulting {@link Right}.
+     */
+    public <S> EitherProgram<L, S> flatMapEither(Function<? super R, ? extends Either<L, S>> mapper) {
+        return new Bind<>(this, mapper, Bind.FLAT_MAP_EITHER);
+    }
+
+    /**
+     * Run the program.
+     *
+     * @return The result of the program.
+     */
+    @SuppressWarnings("unchecked")
+    public Either<L, R> run() {
+        Bind<?, ?>[] stack = new Bind<?, ?>[INITIAL_STACK];
+        int top = 0;
+        EitherProgram<?, ?> current = this;
+
+        while (true) {
+            // Walk into the first step to run, remembering the steps after it.
+            Object value;
+            if (current instanceof Bind<?, ?> bind) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+
+                stack[top++] = bind;
+                current = bind.source;
+                continue;
+            } else if (current instanceof Defer<?, ?> defer) {
+                current = defer.supplier.get();
+                continue;
+            } else if (current instanceof Done<?, ?> done) {
+                if (done.either instanceof Left<?, ?> || top == 0) {
+                    return (Either<L, R>) done.either;
+                }
+
+                value = done.either.fromRight();
+            } else {
+                value = ((Pure<?, ?>) current).item;
+            }
+
+            // Feed the item through the remembered steps, until one of them results in another program.
+            current = null;
+            while (current == null && top > 0) {
+                final Bind<?, ?> step = stack[--top];
+                stack[top] = null;
+
+                final Object result = step.mapper.apply(value);
+                if (step.kind == Bind.MAP) {
+                    value = result;
+                } else if (step.kind == Bind.FLAT_MAP) {
+                    current = (EitherProgram<?, ?>) result;
+                } else if (result instanceof Left<?, ?>) {
+                    return (Either<L, R>) result;
+                } else {
+                    value = ((Either<?, ?>) result).fromRight();
+                }
+            }
+
+            if (current == null) {
+                return new Right<>((R) value);
+            }
+        }
+    }
+
+    /** A program resulting in an either instance. */
+    private static final class Done<L, R> extends EitherProgram<L, R> {
+        private final Either<L, R> either;
+
+        Done(Either<L, R> either) {
+            this.either = either;
+        }
+    }
+
+    /** A program resulting in a {@link Right}, which is only allocated if it is the final result. */
+    private static final class Pure<L, R> extends EitherProgram<L, R> {
+        private final R item;
+
+        Pure(R item) {
+            this.item = item;
+        }
+    }
+
+    /** A program built only once it is run. */
+    private static final class Defer<L, R> extends EitherProgram<L, R> {
+        private final Supplier<? extends EitherProgram<L, R>> supplier;
+
+        Defer(Supplier<? extends EitherProgram<L, R>> supplier) {
+            this.supplier = supplier;
+        }
+    }
+
+    /** A step run on the item of the program before it, if it results in a {@link Right}. */
+    private static final class Bind<L, R> extends EitherProgram<L, R> {
+        /** The step maps over the item. */
+        static final int MAP = 0;
+
+        /** The step produces the next program from the item. */
+        static final int FLAT_MAP = 1;
+
+        /** The step produces an either instance from the item. */
+        static final int FLAT_MAP_EITHER = 2;
+
+        /** The program before this step. */
+        private final EitherProgram<L, ?> source;
+
+        /** The function run on the item. */
+        private final Function<Object, ?> mapper;
+
+        /** What the function produces. */
+        private final int kind;
+
+        @SuppressWarnings("unchecked")
+        Bind(EitherProgram<L, ?> source, Function<?, ?> mapper, int kind) {
+            this.source = source;
+            this.mapper = (Function<Object, ?>) mapper;
+            this.kind = kind;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package net.nergi.lens4j.extra;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The errors of an {@link Invalid}, as a rope.
+ * <p>
+ * Each chain is either a single error, or two chains joined together. Joining is constant time, however long the
+ * chains are, so accumulating the errors of <code>n</code> validations takes <code>O(n)</code> time in total instead
+ * of copying ever longer lists. The errors are only laid out into a list when asked for, in a single pass.
+ *
+ * @param <E> The type of the errors.
+ */
+final class ErrorChain<E> {
+    /** The error, if this is a single error. */
+    private final E error;
+
+    /** The errors before those of {@link #right}, or null if this is a single error. */
+    private final ErrorChain<E> left;
+
+    /** The errors after those of {@link #left}, or null if this is a single error. */
+    private final ErrorChain<E> right;
+
+    /** The number of errors in this chain. */
+    private final int size;
+
+    private ErrorChain(E error, ErrorChain<E> left, ErrorChain<E> right, int size) {
+        this.error = error;
+        this.left = left;
+        this.right = right;
+        this.size = size;
+    }
+
+    /**
+     * Create a chain of a single error.
+     *
+     * @param error The error.
+     * @return The chain.
+     * @param <E> The type of the error.
+     */
+    static <E> ErrorChain<E> of(E error) {
+        return new ErrorChain<>(error, null, null, 1);
+    }
+
+    /**
+     * Join two chains together.
+     *
+     * @param first The errors to come first.
+     * @param second The errors to come after.
+     * @return The chain of both.
+     * @param <E> The type of the errors.
+     */
+    static <E> ErrorChain<E> concat(ErrorChain<E> first, ErrorChain<E> second) {
+        return new ErrorChain<>(null, first, second, Math.addExact(first.size, second.size));
+    }
+
+    /** The number of errors in this chain. */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Lay out the errors into a list, in order.
+     *
+     * @return An unmodifiable list of the errors.
+     */
+    @SuppressWarnings("unchecked")
+    List<E> toList() {
+        final Object[] errors = new Object[size];
+        final Deque<ErrorChain<E>> pending = new ArrayDeque<>();
+        pending.push(this);
+
+        // Walk the tree depth-first, left to right, without recursing, as chains can be very deep.
+        int next = 0;
+        while (!pending.isEmpty()) {
+            final ErrorChain<E> chain = pending.pop();
+            if (chain.left == null) {
+                errors[next++] = chain.error;
+            } else {
+                pending.push(chain.right);
+                pending.push(chain.left);
+            }
+        }
+
+        return (List<E>) Collections.unmodifiableList(Arrays.asList(errors));
+    }
+}
@@ -0,0 +1,35 @@
+package net.nergi.lens4j.extra;
+
+import java.io.Serial;
+
+/**
+ * A lightweight exception for expected failures, which does not capture a stack trace.
+ * <p>
+ * Constructing an ordinary exception walks the whole stack to fill in its trace, which costs far more than the rest
+ * of a typical failing parse or check. When failures are common and are turned into a {@link Left} by
+ * {@link Either#attempt} anyway, the trace is never looked at, so throwing a failure instead skips that cost
+ * entirely. Failures cannot have suppressed exceptions either.
+ */
+public final class Failure extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create a failure with a message.
+     *
+     * @param message The message describing the failure.
+     */
+    public Failure(String message) {
+        super(message, null, false, false);
+    }
+
+    /**
+     * Create a failure with a message and a cause.
+     *
+     * @param message The message describing the failure.
+     * @param cause The exception that caused the failure.
+     */
+    public Failure(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
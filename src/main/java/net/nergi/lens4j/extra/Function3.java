@@ -0,0 +1,22 @@
+package net.nergi.lens4j.extra;
+
+/**
+ * A function of 3 arguments, for use with {@link Either#map3}.
+ *
+ * @param <A> The type of the first argument.
+ * @param <B> The type of the second argument.
+ * @param <C> The type of the third argument.
+ * @param <R> The type of the result.
+ */
+@FunctionalInterface
+public interface Function3<A, B, C, R> {
+    /**
+     * Apply the function.
+     *
+     * @param a The first argument.
+     * @param b The second argument.
+     * @param c The third argument.
+     * @return The result.
+     */
+    R apply(A a, B b, C c);
+}
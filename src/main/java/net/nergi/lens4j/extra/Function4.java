@@ -0,0 +1,24 @@
+package net.nergi.lens4j.extra;
+
+/**
+ * A function of 4 arguments, for use with {@link Either#map4}.
+ *
+ * @param <A> The type of the first argument.
+ * @param <B> The type of the second argument.
+ * @param <C> The type of the third argument.
+ * @param <D> The type of the fourth argument.
+ * @param <R> The type of the result.
+ */
+@FunctionalInterface
+public interface Function4<A, B, C, D, R> {
+    /**
+     * Apply the function.
+     *
+     * @param a The first argument.
+     * @param b The second argument.
+     * @param c The third argument.
+     * @param d The fourth argument.
+     * @return The result.
+     */
+    R apply(A a, B b, C c, D d);
+}
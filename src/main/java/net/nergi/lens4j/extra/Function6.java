@@ -0,0 +1,28 @@
+package net.nergi.lens4j.extra;
+
+/**
+ * A function of 6 arguments, for use with {@link Either#map6}.
+ *
+ * @param <A> The type of the first argument.
+ * @param <B> The type of the second argument.
+ * @param <C> The type of the third argument.
+ * @param <D> The type of the fourth argument.
+ * @param <E> The type of the fifth argument.
+ * @param <F> The type of the sixth argument.
+ * @param <R> The type of the result.
+ */
+@FunctionalInterface
+public interface Function6<A, B, C, D, E, F, R> {
+    /**
+     * Apply the function.
+     *
+     * @param a The first argument.
+     * @param b The second argument.
+     * @param c The third argument.
+     * @param d The fourth argument.
+     * @param e The fifth argument.
+     * @param f The sixth argument.
+     * @return The result.
+     */
+    R apply(A a, B b, C c, D d, E e, F f);
+}
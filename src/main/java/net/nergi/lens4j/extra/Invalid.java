@@ -0,0 +1,79 @@
+package net.nergi.lens4j.extra;
+
+import java.util.List;
+
+/**
+ * The Invalid type.
+ * <p>
+ * Used to store the errors of a failed validation, in the order they were found. The errors are kept in a form that is
+ * cheap to combine, and are laid out into a list the first time they are asked for.
+ *
+ * @param <E> The type of the errors stored in this invalid.
+ * @param <A> Phantom type used for type-checking the successful result.
+ */
+public final class Invalid<E, A> implements Validation<E, A> {
+    /** The errors, cheap to combine with those of another invalid. */
+    private final ErrorChain<E> chain;
+
+    /** The errors as a list, once laid out. */
+    private List<E> errors;
+
+    Invalid(ErrorChain<E> chain) {
+        this.chain = chain;
+    }
+
+    /**
+     * Get every error of this invalid.
+     *
+     * @return An unmodifiable list of the errors, in order.
+     */
+    public List<E> errors() {
+        // Racing threads may each lay out the list, but the lists are equal and safely published by their final fields.
+        List<E> result = errors;
+        if (result == null) {
+            result = chain.toList();
+            errors = result;
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean isValid() {
+        return false;
+    }
+
+    @Override
+    public Either<List<E>, A> toEither() {
+        return new Left<>(errors());
+    }
+
+    /** The errors, for combining with those of another invalid. */
+    ErrorChain<E> chain() {
+        return chain;
+    }
+
+    /**
+     * Reuse this invalid as an invalid of another result type. The result type is only a phantom type, so the cast is
+     * safe.
+     */
+    @SuppressWarnings("unchecked")
+    <B> Validation<E, B> retype() {
+        return (Validation<E, B>) this;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Invalid<?, ?> invalid && errors().equals(invalid.errors());
+    }
+
+    @Override
+    public int hashCode() {
+        return errors().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Invalid[errors=" + errors() + "]";
+    }
+}
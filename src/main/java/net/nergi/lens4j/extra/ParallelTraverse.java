@@ -0,0 +1,161 @@
+package net.nergi.lens4j.extra;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The implementation of {@link Either#traverseParallel}.
+ * <p>
+ * The items are split with their {@link Spliterator} into tasks on a {@link ForkJoinPool}, and each result is written
+ * straight into its slot of an array the size of the input, which becomes the resulting list without being copied.
+ * <p>
+ * The index of the leftmost {@link Left} found so far is shared between every task. Tasks stop as soon as they reach
+ * an item to the right of it, and tasks that have not started yet do nothing, so the rest of the work is cancelled.
+ * Items to the left of it are still visited, since one of them may produce a {@link Left} further left, which keeps
+ * the result the same as a sequential traversal.
+ *
+ * @param <L> The left type.
+ * @param <A> The type of the items.
+ * @param <B> The type of the results.
+ */
+final class ParallelTraverse<L, A, B> {
+    /** The number of leaf tasks to aim for per worker thread, to balance the load. */
+    private static final int TASKS_PER_THREAD = 4;
+
+    /** Function that produces either instances from an item. */
+    private final Function<? super A, ? extends Either<L, ? extends B>> mapper;
+
+    /** The results, with the {@link Left} produced for an item stored in place of its result. */
+    private final Object[] results;
+
+    /** The index of the leftmost {@link Left} found, or the number of items if there is none. */
+    private final AtomicInteger leftmost;
+
+    /** The largest number of items to visit in a single task. */
+    private final long threshold;
+
+    private ParallelTraverse(Function<? super A, ? extends Either<L, ? extends B>> mapper, int size,
+                             int parallelism) {
+        this.mapper = mapper;
+        this.results = new Object[size];
+        this.leftmost = new AtomicInteger(size);
+        this.threshold = Math.max(1, size / ((long) parallelism * TASKS_PER_THREAD));
+    }
+
+    /**
+     * Apply an either-producing function to every item in parallel, collecting the results if they are all
+     * {@link Right}.
+     *
+     * @param items The items to apply the function to.
+     * @param mapper Function that produces either instances from an item.
+     * @param pool The pool to run the function in.
+     * @return A {@link Right} of the list of results in encounter order, or the leftmost {@link Left} produced.
+     * @param <L> The left type.
+     * @param <A> The type of the items.
+     * @param <B> The type of the results.
+     */
+    @SuppressWarnings("unchecked")
+    static <L, A, B> Either<L, List<B>> traverse(Collection<? extends A> items,
+                                                Function<? super A, ? extends Either<L, ? extends B>> mapper,
+                                                ForkJoinPool pool) {
+        Spliterator<? extends A> spliterator = items.spliterator();
+        if (!spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED)) {
+            // Results can only be placed by index if every split knows exactly where it starts.
+            spliterator = Arrays.spliterator((A[]) items.toArray());
+        }
+
+        final long size = spliterator.getExactSizeIfKnown();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot traverse more than " + Integer.MAX_VALUE + " items.");
+        }
+
+        final ParallelTraverse<L, A, B> traversal =
+            new ParallelTraverse<>(mapper, (int) size, pool.getParallelism());
+        pool.invoke(traversal.new Task(spliterator, 0));
+
+        final int left = traversal.leftmost.get();
+        if (left < size) {
+            return (Either<L, List<B>>) traversal.results[left];
+        }
+
+        return new Right<>(Collections.unmodifiableList(Arrays.asList((B[]) traversal.results)));
+    }
+
+    /** Record that an item produced a {@link Left}, if it is further left than any found before. */
+    private void foundLeft(int index, Either<L, ? extends B> left) {
+        results[index] = left;
+        leftmost.accumulateAndGet(index, Math::min);
+    }
+
+    /** A task visiting the items of a spliterator, starting from a known index. */
+    private final class Task extends RecursiveAction implements Consumer<A> {
+        private static final long serialVersionUID = 1L;
+
+        /** The items left for this task. */
+        private final Spliterator<? extends A> spliterator;
+
+        /** The index of the next item to visit. */
+        private int index;
+
+        Task(Spliterator<? extends A> spliterator, int index) {
+            this.spliterator = spliterator;
+            this.index = index;
+        }
+
+        @Override
+        protected void compute() {
+            if (index >= leftmost.get()) {
+                return;
+            }
+
+            // Keep the leftmost part, forking tasks for the rest, so the leftmost items are visited soonest.
+            Spliterator<? extends A> rest = spliterator;
+            List<Task> forked = null;
+            Spliterator<? extends A> prefix;
+            while (rest.estimateSize() > threshold && (prefix = rest.trySplit()) != null) {
+                final Task suffix = new Task(rest, index + (int) prefix.estimateSize());
+                suffix.fork();
+
+                if (forked == null) {
+                    forked = new ArrayList<>();
+                }
+                forked.add(suffix);
+                rest = prefix;
+            }
+
+            // Each item is visited by accept, stopping once a Left is found to the left of it.
+            boolean more = true;
+            while (more && index < leftmost.get()) {
+                more = rest.tryAdvance(this);
+            }
+
+            if (forked != null) {
+                for (final ForkJoinTask<?> task : forked) {
+                    task.join();
+                }
+            }
+        }
+
+        @Override
+        public void accept(A item) {
+            final Either<L, ? extends B> result = mapper.apply(item);
+            if (result instanceof Left<L, ? extends B>) {
+                foundLeft(index, result);
+            } else {
+                results[index] = result.fromRight();
+            }
+
+            ++index;
+        }
+    }
+}
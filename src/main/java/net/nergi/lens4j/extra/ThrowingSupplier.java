@@ -0,0 +1,17 @@
+package net.nergi.lens4j.extra;
+
+/**
+ * A supplier that may throw a checked exception, for use with {@link Either#attempt}.
+ *
+ * @param <T> The type of the result.
+ */
+@FunctionalInterface
+public interface ThrowingSupplier<T> {
+    /**
+     * Get a result.
+     *
+     * @return The result.
+     * @throws Exception If the result could not be produced.
+     */
+    T get() throws Exception;
+}
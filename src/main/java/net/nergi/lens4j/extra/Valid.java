@@ -0,0 +1,24 @@
+package net.nergi.lens4j.extra;
+
+import java.util.List;
+
+/**
+ * The Valid type.
+ * <p>
+ * Used to store the result of a successful validation.
+ *
+ * @param value The result stored in this valid.
+ * @param <E> Phantom type used for type-checking the errors.
+ * @param <A> The type of the result stored in this valid.
+ */
+public record Valid<E, A>(A value) implements Validation<E, A> {
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public Either<List<E>, A> toEither() {
+        return new Right<>(value);
+    }
+}
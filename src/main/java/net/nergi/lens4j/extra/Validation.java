@@ -0,0 +1,138 @@
+package net.nergi.lens4j.extra;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * The Validation sum type, for Java 17+.
+ * <p>
+ * Like {@link Either}, a validation is either a success ({@link Valid}) or a failure ({@link Invalid}). Unlike
+ * {@link Either}, combining validations does not stop at the first failure: the errors of every {@link Invalid} are
+ * accumulated instead, which suits checking many independent fields and reporting everything wrong with them at once.
+ * <p>
+ * Errors are accumulated in constant time per combination, so combining <code>n</code> validations is
+ * <code>O(n)</code> however many of them fail.
+ *
+ * @param <E> The type of the errors.
+ * @param <A> The type of the result of a successful validation.
+ */
+public sealed interface Validation<E, A> permits Valid, Invalid {
+    /** Checks if this is a {@link Valid}. */
+    boolean isValid();
+
+    /**
+     * Create a new {@link Valid} from some value.
+     *
+     * @param value The successful result.
+     * @return The valid instance created.
+     * @param <E> Phantom type used for type-checking the errors.
+     * @param <A> The type of the result.
+     */
+    static <E, A> Validation<E, A> valid(A value) {
+        return new Valid<>(value);
+    }
+
+    /**
+     * Create a new {@link Invalid} from a single error.
+     *
+     * @param error The error.
+     * @return The invalid instance created.
+     * @param <E> The type of the error.
+     * @param <A> Phantom type used for type-checking the successful result.
+     */
+    static <E, A> Validation<E, A> invalid(E error) {
+        return new Invalid<>(ErrorChain.of(error));
+    }
+
+    /**
+     * Convert an either into a validation, where a {@link Left} holds a single error.
+     *
+     * @param either The either to convert.
+     * @return A {@link Valid} of the item of a {@link Right}, or an {@link Invalid} of the item of a {@link Left}.
+     * @param <E> The type of the error.
+     * @param <A> The type of the result.
+     */
+    static <E, A> Validation<E, A> fromEither(Either<? extends E, ? extends A> either) {
+        return either.isRight() ? valid(either.fromRight()) : invalid(either.fromLeft());
+    }
+
+    /**
+     * Convert this validation into an either, with every error in a list if it is {@link Invalid}.
+     *
+     * @return A {@link Right} of the result, or a {@link Left} of the unmodifiable list of errors.
+     */
+    Either<List<E>, A> toEither();
+
+    /**
+     * Map over the result, if this is a {@link Valid}.
+     *
+     * @param mapper Function to map over the result with.
+     * @return A new validation with the mapped result, or this instance if it is {@link Invalid}.
+     * @param <B> The new type of the result.
+     */
+    default <B> Validation<E, B> map(Function<? super A, ? extends B> mapper) {
+        if (this instanceof Invalid<E, A> invalid) {
+            return invalid.retype();
+        }
+
+        return new Valid<>(mapper.apply(((Valid<E, A>) this).value()));
+    }
+
+    /**
+     * Combine this validation with another, accumulating the errors of both if either is {@link Invalid}.
+     *
+     * @param other The validation to combine with.
+     * @param combiner Function combining both results, if both are {@link Valid}.
+     * @return The combined result, or every error of both in order.
+     * @param <B> The type of the result of the other validation.
+     * @param <C> The type of the combined result.
+     */
+    default <B, C> Validation<E, C> combine(Validation<E, ? extends B> other,
+                                            BiFunction<? super A, ? super B, ? extends C> combiner) {
+        if (this instanceof Valid<E, A> valid) {
+            if (other instanceof Valid<E, ? extends B> otherValid) {
+                return new Valid<>(combiner.apply(valid.value(), otherValid.value()));
+            }
+
+            return ((Invalid<E, ? extends B>) other).retype();
+        }
+
+        final Invalid<E, A> invalid = (Invalid<E, A>) this;
+        if (other instanceof Invalid<E, ? extends B> otherInvalid) {
+            return new Invalid<>(ErrorChain.concat(invalid.chain(), otherInvalid.chain()));
+        }
+
+        return invalid.retype();
+    }
+
+    /**
+     * Collect the results of every validation, or every error if any of them are {@link Invalid}.
+     * <p>
+     * Every validation is looked at, and the errors are accumulated in order in <code>O(n)</code> time overall.
+     *
+     * @param validations The validations to collect.
+     * @return A {@link Valid} of the unmodifiable list of results, or an {@link Invalid} of every error.
+     * @param <E> The type of the errors.
+     * @param <A> The type of the results.
+     */
+    static <E, A> Validation<E, List<A>> sequence(Iterable<? extends Validation<E, ? extends A>> validations) {
+        final List<A> results = validations instanceof Collection<?> collection
+            ? new ArrayList<>(collection.size())
+            : new ArrayList<>();
+
+        ErrorChain<E> errors = null;
+        for (final Validation<E, ? extends A> validation : validations) {
+            if (validation instanceof Invalid<E, ? extends A> invalid) {
+                errors = errors == null ? invalid.chain() : ErrorChain.concat(errors, invalid.chain());
+            } else if (errors == null) {
+                results.add(((Valid<E, ? extends A>) validation).value());
+            }
+        }
+
+        return errors == null ? new Valid<>(Collections.unmodifiableList(results)) : new Invalid<>(errors);
+    }
+}
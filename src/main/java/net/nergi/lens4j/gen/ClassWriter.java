@@ -0,0 +1,426 @@
+package net.nergi.lens4j.gen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal class file writer.
+ * <p>
+ * It only supports what the generated lens classes need: a final class extending {@link Object}, implementing some
+ * interfaces with methods made of straight-line code, and holding some fields. As the code never branches, no stack
+ * map frames need to be written.
+ * <p>
+ * This class is not part of the API of Lens4J. It is only public so that {@link net.nergi.lens4j.Lens#compile} can
+ * write the classes holding compiled lenses with it too.
+ */
+public final class ClassWriter {
+    /** Class file version for Java 17. */
+    private static final int VERSION = 61;
+
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_PRIVATE = 0x0002;
+    public static final int ACC_STATIC = 0x0008;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_SUPER = 0x0020;
+
+    // Constant pool tags.
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    /** The serialised constant pool entries. */
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+
+    /** Indices of the entries already in the constant pool. */
+    private final Map<String, Integer> poolIndices = new HashMap<>();
+
+    /** The next free constant pool index. */
+    private int nextIndex = 1;
+
+    /** The serialised fields. */
+    private final List<byte[]> fields = new ArrayList<>();
+
+    /** The serialised methods. */
+    private final List<byte[]> methods = new ArrayList<>();
+
+    /** Internal name of the class being written. */
+    private final String name;
+
+    /** Internal names of the interfaces the class implements. */
+    private final String[] interfaces;
+
+    /**
+     * Create a writer for a class.
+     *
+     * @param name Internal name of the class, with slashes as package separators.
+     * @param interfaces Internal names of the interfaces the class implements.
+     */
+    public ClassWriter(String name, String... interfaces) {
+        this.name = name;
+        this.interfaces = interfaces;
+    }
+
+    /** Add a public no-argument constructor to the class. */
+    public void addConstructor() {
+        final Code code = new Code(this, 1)
+            .aload(0)
+            .invokespecial("java/lang/Object", "<init>", "()V")
+            .returnVoid();
+
+        addMethod(ACC_PUBLIC, "<init>", "()V", code);
+    }
+
+    /**
+     * Add a field to the class.
+     *
+     * @param access Access flags of the field.
+     * @param fieldName Name of the field.
+     * @param descriptor Descriptor of the type of the field.
+     */
+    public void addField(int access, String fieldName, String descriptor) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8(fieldName));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        fields.add(bytes.toByteArray());
+    }
+
+    /**
+     * Add a method to the class.
+     *
+     * @param access Access flags of the method.
+     * @param methodName Name of the method.
+     * @param descriptor Descriptor of the method.
+     * @param code Bytecode of the method body.
+     */
+    public void addMethod(int access, String methodName, String descriptor, Code code) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        final byte[] body = code.toByteArray();
+
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8(methodName));
+            out.writeShort(utf8(descriptor));
+
+            // A single Code attribute with no exception table and no attributes of its own.
+            out.writeShort(1);
+            out.writeShort(utf8("Code"));
+            out.writeInt(12 + body.length);
+            out.writeShort(code.maxStack());
+            out.writeShort(code.maxLocals());
+            out.writeInt(body.length);
+            out.write(body);
+            out.writeShort(0);
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        methods.add(bytes.toByteArray());
+    }
+
+    /** Serialise the class. */
+    public byte[] toByteArray() {
+        final int thisClass = classRef(name);
+        final int superClass = classRef("java/lang/Object");
+        final int[] interfaceClasses = new int[interfaces.length];
+        for (int i = 0; i < interfaces.length; ++i) {
+            interfaceClasses[i] = classRef(interfaces[i]);
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(nextIndex);
+            pool.writeTo(out);
+            out.writeShort(ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaceClasses.length);
+            for (final int interfaceClass : interfaceClasses) {
+                out.writeShort(interfaceClass);
+            }
+            out.writeShort(fields.size());
+            for (final byte[] field : fields) {
+                out.write(field);
+            }
+            out.writeShort(methods.size());
+            for (final byte[] method : methods) {
+                out.write(method);
+            }
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /** Get the constant pool index of a UTF-8 string. */
+    int utf8(String value) {
+        return entry("U" + value, out -> {
+            out.writeByte(CONSTANT_UTF8);
+            out.writeUTF(value);
+        });
+    }
+
+    /** Get the constant pool index of a class, given its internal name. */
+    int classRef(String internalName) {
+        final int nameIndex = utf8(internalName);
+        return entry("C" + internalName, out -> {
+            out.writeByte(CONSTANT_CLASS);
+            out.writeShort(nameIndex);
+        });
+    }
+
+    /** Get the constant pool index of a field of a class. */
+    int fieldRef(String owner, String fieldName, String descriptor) {
+        return memberRef(CONSTANT_FIELDREF, owner, fieldName, descriptor);
+    }
+
+    /** Get the constant pool index of a method of a class. */
+    int methodRef(String owner, String methodName, String descriptor) {
+        return memberRef(CONSTANT_METHODREF, owner, methodName, descriptor);
+    }
+
+    /** Get the constant pool index of a method of an interface. */
+    int interfaceMethodRef(String owner, String methodName, String descriptor) {
+        return memberRef(CONSTANT_INTERFACE_METHODREF, owner, methodName, descriptor);
+    }
+
+    private int memberRef(int tag, String owner, String methodName, String descriptor) {
+        final int ownerIndex = classRef(owner);
+        final int nameIndex = utf8(methodName);
+        final int descriptorIndex = utf8(descriptor);
+
+        final int nameAndType = entry("N" + methodName + ' ' + descriptor, out -> {
+            out.writeByte(CONSTANT_NAME_AND_TYPE);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+
+        return entry(tag + owner + '.' + methodName + descriptor, out -> {
+            out.writeByte(tag);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    /** Get the index of a constant pool entry, writing it if it has not been added yet. */
+    private int entry(String key, PoolEntry writer) {
+        final Integer existing = poolIndices.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            writer.write(new DataOutputStream(pool));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final int index = nextIndex++;
+        poolIndices.put(key, index);
+        return index;
+    }
+
+    /** Writes the contents of a constant pool entry. */
+    @FunctionalInterface
+    private interface PoolEntry {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * A straight-line method body.
+     * <p>
+     * The maximum stack depth is tracked as instructions are added, so it is always exact.
+     */
+    public static final class Code {
+        // Opcodes.
+        private static final int ICONST_0 = 0x03;
+        private static final int ALOAD = 0x19;
+        private static final int ASTORE = 0x3A;
+        private static final int ARETURN = 0xB0;
+        private static final int RETURN = 0xB1;
+        private static final int DUP = 0x59;
+        private static final int GETSTATIC = 0xB2;
+        private static final int PUTSTATIC = 0xB3;
+        private static final int NEW = 0xBB;
+        private static final int CHECKCAST = 0xC0;
+        private static final int INVOKEVIRTUAL = 0xB6;
+        private static final int INVOKESPECIAL = 0xB7;
+        private static final int INVOKESTATIC = 0xB8;
+        private static final int INVOKEINTERFACE = 0xB9;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final ClassWriter writer;
+        private final int maxLocals;
+        private int stack = 0;
+        private int maxStack = 0;
+
+        /**
+         * Create a method body.
+         *
+         * @param writer The writer for the class the method belongs to.
+         * @param maxLocals Number of local variable slots the method uses, including its parameters.
+         */
+        public Code(ClassWriter writer, int maxLocals) {
+            this.writer = writer;
+            this.maxLocals = maxLocals;
+        }
+
+        /** Push a small int constant, from 0 to 5. */
+        public Code iconst(int value) {
+            if (value < 0 || value > 5) {
+                throw new IllegalArgumentException("Only ints from 0 to 5 can be pushed directly.");
+            }
+
+            return op(ICONST_0 + value).push(1);
+        }
+
+        public Code aload(int slot) {
+            return op(ALOAD).u1(slot).push(1);
+        }
+
+        public Code astore(int slot) {
+            return op(ASTORE).u1(slot).push(-1);
+        }
+
+        public Code areturn() {
+            return op(ARETURN).push(-1);
+        }
+
+        public Code returnVoid() {
+            return op(RETURN);
+        }
+
+        public Code dup() {
+            return op(DUP).push(1);
+        }
+
+        public Code newInstance(String type) {
+            return op(NEW).u2(writer.classRef(type)).push(1);
+        }
+
+        public Code checkcast(String type) {
+            return op(CHECKCAST).u2(writer.classRef(type));
+        }
+
+        public Code getstatic(String owner, String name, String descriptor) {
+            return op(GETSTATIC).u2(writer.fieldRef(owner, name, descriptor)).push(slots(descriptor.charAt(0)));
+        }
+
+        public Code putstatic(String owner, String name, String descriptor) {
+            return op(PUTSTATIC).u2(writer.fieldRef(owner, name, descriptor)).push(-slots(descriptor.charAt(0)));
+        }
+
+        public Code invokevirtual(String owner, String name, String descriptor) {
+            return op(INVOKEVIRTUAL).u2(writer.methodRef(owner, name, descriptor)).push(delta(descriptor, true));
+        }
+
+        public Code invokespecial(String owner, String name, String descriptor) {
+            return op(INVOKESPECIAL).u2(writer.methodRef(owner, name, descriptor)).push(delta(descriptor, true));
+        }
+
+        public Code invokestatic(String owner, String name, String descriptor) {
+            return op(INVOKESTATIC).u2(writer.methodRef(owner, name, descriptor)).push(delta(descriptor, false));
+        }
+
+        public Code invokeinterface(String owner, String name, String descriptor) {
+            final int argumentSlots = argumentSlots(descriptor) + 1;
+            return op(INVOKEINTERFACE)
+                .u2(writer.interfaceMethodRef(owner, name, descriptor))
+                .u1(argumentSlots)
+                .u1(0)
+                .push(delta(descriptor, true));
+        }
+
+        int maxStack() {
+            return maxStack;
+        }
+
+        int maxLocals() {
+            return maxLocals;
+        }
+
+        public byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+        private Code op(int opcode) {
+            return u1(opcode);
+        }
+
+        private Code u1(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        private Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        private Code push(int slots) {
+            stack += slots;
+            maxStack = Math.max(maxStack, stack);
+            return this;
+        }
+
+        /** The change in stack depth caused by invoking a method with the given descriptor. */
+        private static int delta(String descriptor, boolean hasReceiver) {
+            final int returned = slots(descriptor.charAt(descriptor.indexOf(')') + 1));
+            return returned - argumentSlots(descriptor) - (hasReceiver ? 1 : 0);
+        }
+
+        /** The number of stack slots taken by the arguments of a method with the given descriptor. */
+        private static int argumentSlots(String descriptor) {
+            int slots = 0;
+            int i = 1;
+            while (descriptor.charAt(i) != ')') {
+                final char c = descriptor.charAt(i);
+                slots += slots(c);
+
+                // Skip over the rest of the type.
+                while (descriptor.charAt(i) == '[') {
+                    ++i;
+                }
+                i = descriptor.charAt(i) == 'L' ? descriptor.indexOf(';', i) + 1 : i + 1;
+            }
+
+            return slots;
+        }
+
+        /** The number of stack slots taken by a type, given the first character of its descriptor. */
+        private static int slots(char descriptor) {
+            return switch (descriptor) {
+                case 'V' -> 0;
+                case 'J', 'D' -> 2;
+                default -> 1;
+            };
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package net.nergi.lens4j.gen;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.nergi.lens4j.SimpleLens;
+
+/**
+ * Lenses over records, backed by generated code.
+ * <p>
+ * Composing lenses with {@link net.nergi.lens4j.Lens#andThen} runs the accessor and replacer of every lens along the
+ * way. For paths through records, this class instead generates dedicated hidden classes per path, containing the
+ * straight-line accessor and canonical constructor calls one would write by hand. Setting or mapping over a deep field
+ * then costs the same as a hand-written wither.
+ * <p>
+ * Generated lenses are cached per lookup class, keyed on the record class and path, so each path is only generated
+ * once per lookup class. The cache lives in the lookup class, alongside the generated classes, so it never keeps the
+ * classes of one caller reachable from another.
+ */
+public final class GeneratedLenses {
+    /** Generated lenses, per lookup class. */
+    private static final ClassValue<ConcurrentMap<PathKey, SimpleLens<?, ?>>> CACHE = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<PathKey, SimpleLens<?, ?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private GeneratedLenses() {
+        // This class cannot be instantiated.
+    }
+
+    /**
+     * Get a lens along a path of record components.
+     * <p>
+     * For example, <code>forPath(MethodHandles.lookup(), Person.class, "address", "city")</code> focuses on
+     * <code>person.address().city()</code>. Every component but the last must itself be of a record type.
+     * <p>
+     * The generated classes are defined in the package of the lookup class and join its nest, so records private to the
+     * caller can be used. This requires a lookup with full privilege access, such as one from
+     * {@link MethodHandles#lookup()}, which can access every record along the path.
+     *
+     * @param lookup The caller's lookup.
+     * @param root The record the path starts from.
+     * @param path The names of the components along the path.
+     * @return A lens focusing on the end of the path.
+     * @param <R> The type of the root record.
+     * @param <F> The type of the field at the end of the path.
+     * @throws IllegalArgumentException If the path is not valid for the record, the lookup cannot access the records
+     *     along it, or the class cannot be generated.
+     */
+    @SuppressWarnings("unchecked")
+    public static <R extends Record, F> SimpleLens<R, F> forPath(MethodHandles.Lookup lookup, Class<R> root,
+                                                                String... path) {
+        // Every lookup with full privilege access has the same access as its lookup class, so once this is checked,
+        // the lenses cached for the class were checked against the same access when they were generated.
+        RecordPathGenerator.checkPrivileges(lookup);
+
+        final PathKey key = new PathKey(root, List.of(path));
+        return (SimpleLens<R, F>) CACHE.get(lookup.lookupClass())
+            .computeIfAbsent(key, k -> RecordPathGenerator.generate(lookup, root, path));
+    }
+
+    /**
+     * The key of a generated lens, within the cache of a lookup class.
+     *
+     * @param root The record the path starts from.
+     * @param path The names of the components along the path.
+     */
+    private record PathKey(Class<?> root, List<String> path) {
+    }
+}
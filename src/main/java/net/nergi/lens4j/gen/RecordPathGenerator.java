@@ -0,0 +1,340 @@
+package net.nergi.lens4j.gen;
+
+import static net.nergi.lens4j.gen.ClassWriter.ACC_PUBLIC;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import net.nergi.lens4j.SimpleLens;
+
+/**
+ * Generates the hidden classes behind {@link GeneratedLenses}.
+ * <p>
+ * For a path of record components <code>c0.c1...cn</code> starting at a record <code>R0</code>, three classes are
+ * generated: one implementing {@link Function} for viewing, and two implementing {@link BiFunction} for setting and
+ * mapping. Their bodies are equivalent to the following hand-written code:
+ * <pre>{@code
+ * Object view(Object root) {
+ *     return ((R0) root).c0().c1()...cn();
+ * }
+ *
+ * Object set(Object value, Object root) {
+ *     R0 p0 = (R0) root;
+ *     R1 p1 = p0.c0();
+ *     ...
+ *     Rn pn = ...;
+ *     return new R0(p0.a(), new R1(p1.b(), ... new Rn(pn.x(), (T) value, pn.y()) ...), p0.z());
+ * }
+ *
+ * Object over(Object mapper, Object root) {
+ *     // As set, with value = ((Function) mapper).apply(pn.cn()).
+ * }
+ * }</pre>
+ * Each function of the resulting lens is an instance of one of these classes, so it calls straight into the generated
+ * code. Hidden classes cannot be referred to by name from other classes, which is why the functions are not simply
+ * bound to static methods of a single class.
+ */
+final class RecordPathGenerator {
+    /** Simple name of the generated classes, within the package of the lookup used. */
+    private static final String CLASS_NAME = "Lens4J$RecordPath";
+
+    private static final String FUNCTION = "java/util/function/Function";
+    private static final String BI_FUNCTION = "java/util/function/BiFunction";
+    private static final String UNARY_DESCRIPTOR = "(Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final String BINARY_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;";
+
+    // Local slots of the parameters of the generated methods, after the receiver.
+    private static final int FIRST = 1;
+    private static final int SECOND = 2;
+
+    /** The records along the path, starting with the root. */
+    private final Class<?>[] records;
+
+    /** The components of each record along the path. */
+    private final RecordComponent[][] components;
+
+    /** The index of the component followed in each record along the path. */
+    private final int[] indices;
+
+    /** The type of the field at the end of the path. */
+    private final Class<?> leaf;
+
+    private RecordPathGenerator(Class<?>[] records, RecordComponent[][] components, int[] indices) {
+        this.records = records;
+        this.components = components;
+        this.indices = indices;
+
+        final int last = records.length - 1;
+        this.leaf = components[last][indices[last]].getType();
+    }
+
+    /**
+     * Generate a lens along a path of record components.
+     *
+     * @param lookup A lookup with full privilege access, in which to define the generated classes.
+     * @param root The record the path starts from.
+     * @param path The names of the components along the path.
+     * @return A lens focusing on the end of the path.
+     * @throws IllegalArgumentException If the path is not valid for the record, the lookup cannot access the records
+     *     along it, or the classes cannot be generated.
+     */
+    static <R, F> SimpleLens<R, F> generate(MethodHandles.Lookup lookup, Class<R> root, String[] path) {
+        if (path.length == 0) {
+            throw new IllegalArgumentException("A record path must contain at least one component.");
+        }
+
+        final Class<?>[] records = new Class<?>[path.length];
+        final RecordComponent[][] components = new RecordComponent[path.length][];
+        final int[] indices = new int[path.length];
+
+        Class<?> current = root;
+        for (int i = 0; i < path.length; ++i) {
+            if (!current.isRecord()) {
+                throw new IllegalArgumentException(
+                    "Cannot follow component \"" + path[i] + "\" of " + current.getName() + ", as it is not a record.");
+            }
+
+            records[i] = current;
+            components[i] = current.getRecordComponents();
+            indices[i] = indexOf(components[i], path[i]);
+            current = components[i][indices[i]].getType();
+        }
+
+        checkAccess(lookup, records, components, current);
+        return new RecordPathGenerator(records, components, indices).define(lookup);
+    }
+
+    /**
+     * Check that the generated classes will be able to use every record along the path, and the leaf type.
+     * <p>
+     * Otherwise, the lens would only fail with an {@link IllegalAccessError} once it is first used.
+     */
+    private static void checkAccess(MethodHandles.Lookup lookup, Class<?>[] records, RecordComponent[][] components,
+                                    Class<?> leaf) {
+        checkPrivileges(lookup);
+
+        Class<?> type = leaf;
+        try {
+            for (int i = 0; i < records.length; ++i) {
+                type = records[i];
+                lookup.accessClass(type);
+
+                // The canonical constructor may be less accessible than the record itself.
+                final Class<?>[] parameters =
+                    Arrays.stream(components[i]).map(RecordComponent::getType).toArray(Class<?>[]::new);
+                lookup.findConstructor(type, MethodType.methodType(void.class, parameters));
+            }
+
+            type = leaf;
+            if (!leaf.isPrimitive()) {
+                lookup.accessClass(leaf);
+            }
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalArgumentException("The lookup given cannot access " + type.getName() + ".", e);
+        }
+    }
+
+    /**
+     * Check that a lookup has full privilege access, as the generated classes are defined with it.
+     *
+     * @param lookup The lookup to check.
+     * @throws IllegalArgumentException If the lookup does not have full privilege access, caused by an
+     *     {@link IllegalAccessException}.
+     */
+    static void checkPrivileges(MethodHandles.Lookup lookup) {
+        if (!lookup.hasFullPrivilegeAccess()) {
+            final String message =
+                "The lookup given for " + lookup.lookupClass().getName() + " does not have full privilege access.";
+            throw new IllegalArgumentException(message, new IllegalAccessException(message));
+        }
+    }
+
+    /** Find the index of a component by name. */
+    private static int indexOf(RecordComponent[] components, String name) {
+        for (int i = 0; i < components.length; ++i) {
+            if (components[i].getName().equals(name)) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("No record component named \"" + name + "\" in "
+            + Arrays.toString(Arrays.stream(components).map(RecordComponent::getName).toArray()) + ".");
+    }
+
+    /** Define the generated classes and put their instances into a lens. */
+    @SuppressWarnings("unchecked")
+    private <R, F> SimpleLens<R, F> define(MethodHandles.Lookup lookup) {
+        final String packageName = lookup.lookupClass().getPackageName().replace('.', '/');
+        final String name = packageName.isEmpty() ? CLASS_NAME : packageName + '/' + CLASS_NAME;
+
+        try {
+            final Function<R, F> accessor = (Function<R, F>) instantiate(lookup, writeView(name));
+            final BiFunction<F, R, R> replacer = (BiFunction<F, R, R>) instantiate(lookup, writeSet(name));
+            final BiFunction<Function<F, F>, R, R> modifier =
+                (BiFunction<Function<F, F>, R, R>) instantiate(lookup, writeOver(name));
+
+            return new SimpleLens<>(accessor, replacer, modifier);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("The lookup given cannot access " + records[0].getName() + ".", e);
+        } catch (Throwable t) {
+            throw new IllegalArgumentException("Failed to generate a lens for " + records[0].getName() + ".", t);
+        }
+    }
+
+    /** Define a generated class and create an instance of it. */
+    private static Object instantiate(MethodHandles.Lookup lookup, byte[] bytes) throws Throwable {
+        final MethodHandles.Lookup hidden =
+            lookup.defineHiddenClass(bytes, true, MethodHandles.Lookup.ClassOption.NESTMATE);
+
+        return hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+    }
+
+    /** Write the class that views the end of the path. */
+    private byte[] writeView(String name) {
+        final ClassWriter writer = new ClassWriter(name, FUNCTION);
+        writer.addConstructor();
+
+        // apply(root)
+        final ClassWriter.Code code = new ClassWriter.Code(writer, 2);
+        code.aload(FIRST).checkcast(internalName(records[0]));
+        for (int i = 0; i < records.length; ++i) {
+            invokeAccessor(code, i, indices[i]);
+        }
+        box(code, leaf).areturn();
+        writer.addMethod(ACC_PUBLIC, "apply", UNARY_DESCRIPTOR, code);
+
+        return writer.toByteArray();
+    }
+
+    /** Write the class that sets the end of the path. */
+    private byte[] writeSet(String name) {
+        final ClassWriter writer = new ClassWriter(name, BI_FUNCTION);
+        writer.addConstructor();
+
+        // apply(value, root)
+        final ClassWriter.Code code = new ClassWriter.Code(writer, maxLocals());
+        descend(code, SECOND);
+        rebuild(code, FIRST).areturn();
+        writer.addMethod(ACC_PUBLIC, "apply", BINARY_DESCRIPTOR, code);
+
+        return writer.toByteArray();
+    }
+
+    /** Write the class that maps over the end of the path. */
+    private byte[] writeOver(String name) {
+        final ClassWriter writer = new ClassWriter(name, BI_FUNCTION);
+        writer.addConstructor();
+
+        // apply(mapper, root), storing the mapped value over the mapper.
+        final int last = records.length - 1;
+        final ClassWriter.Code code = new ClassWriter.Code(writer, maxLocals());
+        descend(code, SECOND);
+        code.aload(FIRST).checkcast(FUNCTION).aload(parent(last));
+        invokeAccessor(code, last, indices[last]);
+        box(code, leaf)
+            .invokeinterface(FUNCTION, "apply", UNARY_DESCRIPTOR)
+            .astore(FIRST);
+        rebuild(code, FIRST).areturn();
+        writer.addMethod(ACC_PUBLIC, "apply", BINARY_DESCRIPTOR, code);
+
+        return writer.toByteArray();
+    }
+
+    /** Local slots used when setting: the receiver, both parameters, every record along the path, then the child. */
+    private int maxLocals() {
+        return childSlot() + 1;
+    }
+
+    /** The local slot holding each rebuilt record, until it is given to its parent. */
+    private int childSlot() {
+        return parent(records.length);
+    }
+
+    /** The local slot holding the record at the given depth, once the path has been descended. */
+    private static int parent(int depth) {
+        return SECOND + 1 + depth;
+    }
+
+    /** Walk down the path from the root, storing each record along the way. */
+    private void descend(ClassWriter.Code code, int rootSlot) {
+        code.aload(rootSlot).checkcast(internalName(records[0])).astore(parent(0));
+        for (int i = 1; i < records.length; ++i) {
+            code.aload(parent(i - 1));
+            invokeAccessor(code, i - 1, indices[i - 1]);
+            code.astore(parent(i));
+        }
+    }
+
+    /** Rebuild every record along the path from the bottom up, leaving the new root on the stack. */
+    private ClassWriter.Code rebuild(ClassWriter.Code code, int valueSlot) {
+        final int childSlot = childSlot();
+        for (int i = records.length - 1; i >= 0; --i) {
+            final String owner = internalName(records[i]);
+            final StringBuilder constructor = new StringBuilder("(");
+
+            code.newInstance(owner).dup();
+            for (int j = 0; j < components[i].length; ++j) {
+                final Class<?> type = components[i][j].getType();
+                constructor.append(descriptor(type));
+
+                if (j != indices[i]) {
+                    code.aload(parent(i));
+                    invokeAccessor(code, i, j);
+                } else if (i == records.length - 1) {
+                    unbox(code.aload(valueSlot), type);
+                } else {
+                    code.aload(childSlot);
+                }
+            }
+            code.invokespecial(owner, "<init>", constructor.append(")V").toString());
+
+            if (i > 0) {
+                code.astore(childSlot);
+            }
+        }
+
+        return code;
+    }
+
+    /** Call the accessor of a component of the record at the given depth. */
+    private void invokeAccessor(ClassWriter.Code code, int depth, int index) {
+        final RecordComponent component = components[depth][index];
+        code.invokevirtual(internalName(records[depth]), component.getAccessor().getName(),
+            "()" + descriptor(component.getType()));
+    }
+
+    /** Box a primitive on the stack, if the type is primitive. */
+    private static ClassWriter.Code box(ClassWriter.Code code, Class<?> type) {
+        if (!type.isPrimitive()) {
+            return code;
+        }
+
+        final String wrapper = internalName(MethodType.methodType(type).wrap().returnType());
+        return code.invokestatic(wrapper, "valueOf", "(" + descriptor(type) + ")L" + wrapper + ";");
+    }
+
+    /** Convert an object on the stack into the given type, unboxing it if the type is primitive. */
+    private static ClassWriter.Code unbox(ClassWriter.Code code, Class<?> type) {
+        if (type == Object.class) {
+            return code;
+        } else if (!type.isPrimitive()) {
+            return code.checkcast(internalName(type));
+        }
+
+        final String wrapper = internalName(MethodType.methodType(type).wrap().returnType());
+        return code.checkcast(wrapper).invokevirtual(wrapper, type.getName() + "Value", "()" + descriptor(type));
+    }
+
+    /** The internal name of a class, as used by class references. */
+    private static String internalName(Class<?> type) {
+        return type.isArray() ? descriptor(type) : type.getName().replace('.', '/');
+    }
+
+    /** The descriptor of a type. */
+    private static String descriptor(Class<?> type) {
+        return type.descriptorString();
+    }
+}
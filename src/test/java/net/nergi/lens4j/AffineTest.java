@@ -0,0 +1,120 @@
+package net.nergi.lens4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Optional;
+import net.nergi.lens4j.extra.Either;
+import net.nergi.lens4j.extra.EitherPrisms;
+import org.junit.jupiter.api.Test;
+
+class AffineTest {
+    // Constants to test for.
+    private static final Account SET = new Account("a", new Address("1 Road", "N1"), Either.toRight(10));
+    private static final Account UNSET = new Account("b", null, Either.toLeft("frozen"));
+
+    // Our lenses.
+    private static final SimpleLens<Account, Address> ADDRESS = Lenses.forRecord(Account.class, "address");
+    private static final SimpleLens<Address, String> POSTCODE = Lenses.forRecord(Address.class, "postcode");
+    private static final SimpleLens<Account, Either<String, Integer>> BALANCE =
+        Lenses.forRecord(Account.class, "balance");
+
+    @Test
+    void nullableFieldsShouldOnlyBeFocusedOnIfSet() {
+        // Our optic.
+        final Affine<Account, String> postcode = Affine.nullable(ADDRESS).andThen(POSTCODE);
+
+        // Testing if the field is viewed only if set.
+        assertTrue(postcode.matches(SET));
+        assertFalse(postcode.matches(UNSET));
+        assertEquals(Optional.of("N1"), postcode.preview(SET));
+        assertEquals(Optional.empty(), postcode.preview(UNSET));
+        assertEquals("none", postcode.previewOrElse(UNSET, "none"));
+
+        // Testing if the field is updated only if set.
+        assertEquals("N2", postcode.previewOrElse(postcode.set("N2", SET), null));
+        assertEquals("N1!", postcode.previewOrElse(postcode.over(p -> p + "!", SET), null));
+        assertSame(UNSET, postcode.set("N2", UNSET));
+        assertSame(UNSET, postcode.over(p -> p + "!", UNSET));
+        assertSame(SET, postcode.over(p -> p, SET));
+    }
+
+    @Test
+    void lensesComposedWithPrismsShouldUpdateInsideEithers() {
+        // Our optic.
+        final Affine<Account, Integer> balance = BALANCE.andThen(EitherPrisms.<String, Integer>right());
+
+        // Testing if the right is updated and the left is kept.
+        assertEquals(Optional.of(10), balance.preview(SET));
+        assertEquals(Either.toRight(15), balance.over(b -> b + 5, SET).balance());
+        assertEquals(SET.name(), balance.set(0, SET).name());
+        assertSame(UNSET, balance.over(b -> b + 5, UNSET));
+        assertSame(UNSET, balance.set(0, UNSET));
+    }
+
+    @Test
+    void lensesComposedWithAffinesShouldReachNestedFields() {
+        // Our optics, through a holder of accounts.
+        final SimpleLens<Holder, Account> account = Lenses.forRecord(Holder.class, "account");
+        final Affine<Holder, String> postcode = account.andThen(Affine.nullable(ADDRESS)).andThen(POSTCODE);
+        final Affine<Holder, String> frozen =
+            account.andThenSimple(BALANCE).andThen(EitherPrisms.<String, Integer>left());
+
+        // Testing if each optic finds its item only where it is.
+        assertEquals(new Holder(SET.withAddress(new Address("1 Road", "E1"))), postcode.set("E1", new Holder(SET)));
+        assertEquals(Optional.empty(), postcode.preview(new Holder(UNSET)));
+        assertEquals(Optional.of("frozen"), frozen.preview(new Holder(UNSET)));
+        assertEquals(Optional.empty(), frozen.preview(new Holder(SET)));
+
+        // Testing if optics built by hand work the same.
+        final Affine<Account, String> name = new Affine<>(a -> a.name().length() > 0, Account::name,
+            (n, a) -> new Account(n, a.address(), a.balance()));
+        assertEquals("z", name.set("z", SET).name());
+        assertSame(SET, name.over(n -> n, SET));
+    }
+
+    @Test
+    void composedAffinesShouldProbeEachOpticOnce() {
+        // Counts how many times any optic has been probed.
+        final int[] probes = {0};
+        final Affine<Holder, Account> account = new Affine<>(h -> ++probes[0] > 0, Holder::account,
+            (a, h) -> new Holder(a));
+        final Affine<Account, Address> address = new Affine<>(a -> ++probes[0] > 0 && a.address() != null,
+            Account::address, (d, a) -> a.withAddress(d));
+        final Affine<Address, String> postcode = new Affine<>(a -> ++probes[0] > 0, Address::postcode,
+            (p, a) -> new Address(a.street(), p));
+
+        // The same chain, associated both ways.
+        final Affine<Holder, String> leftNested = account.andThen(address).andThen(postcode);
+        final Affine<Holder, String> rightNested = account.andThen(address.andThen(postcode));
+
+        for (final Affine<Holder, String> optic : List.of(leftNested, rightNested)) {
+            // Testing if setting and mapping probe each of the three optics once, as does viewing the result.
+            probes[0] = 0;
+            assertEquals("E1", optic.previewOrElse(optic.set("E1", new Holder(SET)), null));
+            assertEquals(6, probes[0]);
+            probes[0] = 0;
+            assertEquals("N1!", optic.previewOrElse(optic.over(p -> p + "!", new Holder(SET)), null));
+            assertEquals(6, probes[0]);
+
+            // Testing if probing stops at the first optic with nothing to focus on.
+            final Holder unset = new Holder(UNSET);
+            probes[0] = 0;
+            assertSame(unset, optic.set("E1", unset));
+            assertEquals(2, probes[0]);
+        }
+    }
+
+    // Our record types.
+    private record Address(String street, String postcode) {
+    }
+
+    private record Account(String name, Address address, Either<String, Integer> balance) {
+        Account withAddress(Address address) {
+            return new Account(name, address, balance);
+        }
+    }
+
+    private record Holder(Account account) {
+    }
+}
@@ -0,0 +1,71 @@
+package net.nergi.lens4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ArrayLensTest {
+    // Constants to test for.
+    private static final Table INIT = new Table(new int[]{1, 2, 3, 4}, new long[]{10L, 20L},
+        new double[]{0.5, -0.0}, new String[]{"a", "b", "c"});
+
+    // Our lenses.
+    private static final IntArrayLens<Table> INTS = new IntArrayLens<>(Lenses.forRecord(Table.class, "ints"));
+    private static final LongArrayLens<Table> LONGS = new LongArrayLens<>(Lenses.forRecord(Table.class, "longs"));
+    private static final DoubleArrayLens<Table> DOUBLES =
+        new DoubleArrayLens<>(Lenses.forRecord(Table.class, "doubles"));
+    private static final ArrayLens<Table, String> NAMES = new ArrayLens<>(Lenses.forRecord(Table.class, "names"));
+
+    @Test
+    void elementLensesShouldCopyOnWrite() {
+        // Testing if elements are viewed and set without touching the original.
+        assertEquals(3, INTS.at(2).viewInt(INIT));
+        assertArrayEquals(new int[]{1, 2, 9, 4}, INTS.at(2).setInt(9, INIT).ints());
+        assertArrayEquals(new long[]{10L, 21L}, LONGS.at(1).overLong(l -> l + 1, INIT).longs());
+        assertArrayEquals(new String[]{"a", "B", "c"}, NAMES.at(1).over(String::toUpperCase, INIT).names());
+        assertArrayEquals(new int[]{1, 2, 3, 4}, INIT.ints());
+
+        // Testing if setting an element to what it holds keeps the instance.
+        assertSame(INIT, INTS.at(0).setInt(1, INIT));
+        assertSame(INIT, NAMES.at(2).set("c", INIT));
+
+        // Testing if doubles are compared by their bits.
+        assertSame(INIT, DOUBLES.at(0).setDouble(0.5, INIT));
+        assertNotSame(INIT, DOUBLES.at(1).setDouble(0.0, INIT));
+    }
+
+    @Test
+    void rangeLensesShouldViewAndReplaceRanges() {
+        // Testing if the range is viewed as a copy.
+        assertArrayEquals(new int[]{2, 3}, INTS.range(1, 3).view(INIT));
+        assertArrayEquals(new String[]{"b", "c"}, NAMES.range(1, 3).view(INIT));
+
+        // Testing if the range is replaced in one go.
+        assertArrayEquals(new int[]{1, 7, 8, 4}, INTS.range(1, 3).set(new int[]{7, 8}, INIT).ints());
+        assertArrayEquals(new double[]{1.0, 2.0}, DOUBLES.range(0, 2).set(new double[]{1.0, 2.0}, INIT).doubles());
+
+        // Testing if invalid ranges are rejected.
+        assertThrows(IllegalArgumentException.class, () -> INTS.range(1, 3).set(new int[]{7}, INIT));
+        assertThrows(IndexOutOfBoundsException.class, () -> INTS.range(3, 6).view(INIT));
+        assertThrows(IndexOutOfBoundsException.class, () -> LONGS.range(2, 1));
+    }
+
+    @Test
+    void overRangeShouldCopyAtMostOnce() {
+        // Testing if the whole range is mapped over.
+        final Table mapped = INTS.overRange(1, 4, i -> i * 10, INIT);
+        assertArrayEquals(new int[]{1, 20, 30, 40}, mapped.ints());
+        assertArrayEquals(new long[]{20L, 40L}, LONGS.overRange(0, 2, l -> l * 2, INIT).longs());
+        assertArrayEquals(new double[]{1.0, -0.0}, DOUBLES.overRange(0, 1, d -> d * 2, INIT).doubles());
+        assertArrayEquals(new String[]{"a", "bb", "cc"}, NAMES.overRange(1, 3, n -> n + n, INIT).names());
+
+        // Testing if nothing is copied when nothing changes.
+        assertSame(INIT, INTS.overRange(0, 4, i -> i, INIT));
+        assertSame(INIT, NAMES.overRange(0, 3, n -> n, INIT));
+        assertThrows(IndexOutOfBoundsException.class, () -> INTS.overRange(2, 5, i -> i, INIT));
+    }
+
+    // Our record type.
+    private record Table(int[] ints, long[] longs, double[] doubles, String[] names) {
+    }
+}
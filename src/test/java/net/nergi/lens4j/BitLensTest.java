@@ -0,0 +1,98 @@
+package net.nergi.lens4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BitLensTest {
+    // Constants to test for.
+    private static final int WORD = 0b1011_0110;
+    private static final long WIDE = 0xFFFF_0000_1234_5678L;
+
+    @Test
+    void intBitLensShouldViewAndSetRanges() {
+        // Our lenses.
+        final IntBitLens unsigned = new IntBitLens(4, 4);
+        final IntBitLens signed = new IntBitLens(4, 4, true);
+        final IntBitLens whole = new IntBitLens(0, 32, true);
+
+        // Testing if the range is extracted and extended.
+        assertEquals(0b1011, unsigned.view(WORD));
+        assertEquals(-5, signed.view(WORD));
+        assertEquals(WORD, whole.view(WORD));
+
+        // Testing if setting only touches the range, truncating the value.
+        assertEquals(0b0010_0110, unsigned.set(2, WORD));
+        assertEquals(0b1111_0110, signed.set(-1, WORD));
+        assertEquals(0b0001_0110, unsigned.set(0b1_0001, WORD));
+        assertEquals(-4, signed.view(signed.over(v -> v + 1, WORD)));
+    }
+
+    @Test
+    void longBitLensShouldViewAndSetRanges() {
+        // Our lenses.
+        final LongBitLens top = new LongBitLens(48, 16, true);
+        final LongBitLens middle = new LongBitLens(16, 16);
+
+        // Testing if the range is extracted and extended.
+        assertEquals(-1L, top.view(WIDE));
+        assertEquals(0x1234L, middle.view(WIDE));
+
+        // Testing if setting only touches the range.
+        assertEquals(0x7FFF_0000_1234_5678L, top.set(0x7FFF, WIDE));
+        assertEquals(0xFFFF_0000_ABCD_5678L, middle.over(m -> m + 0x9999, WIDE));
+    }
+
+    @Test
+    void bitLensesShouldRejectRangesOutsideTheWord() {
+        assertThrows(IllegalArgumentException.class, () -> new IntBitLens(30, 3));
+        assertThrows(IllegalArgumentException.class, () -> new IntBitLens(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LongBitLens(-1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new LongBitLens(1, 64));
+
+        // Testing if widths that overflow when added to the offset are rejected too.
+        assertThrows(IllegalArgumentException.class, () -> new IntBitLens(1, Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> new LongBitLens(1, Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> new IntBitLens(Integer.MAX_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void longBitLensShouldApplyToWholeArrays() {
+        // Our lens and table.
+        final LongBitLens flags = new LongBitLens(0, 8);
+        final long[] table = {0x100L, 0x2FFL, 0x3AAL};
+
+        // Testing if copies are made, leaving the table unchanged.
+        assertArrayEquals(new long[]{0x105L, 0x205L, 0x305L}, flags.setAll(5, table));
+        assertArrayEquals(new long[]{0x101L, 0x200L, 0x3ABL}, flags.overAll(f -> f + 1, table));
+        assertArrayEquals(new long[]{0x100L, 0x2FFL, 0x3AAL}, table);
+
+        // Testing if the table is modified in place.
+        flags.overAllInPlace(f -> f >> 1, table);
+        assertArrayEquals(new long[]{0x100L, 0x27FL, 0x355L}, table);
+        flags.setAllInPlace(0, table);
+        assertArrayEquals(new long[]{0x100L, 0x200L, 0x300L}, table);
+    }
+
+    @Test
+    void bitLensesShouldComposeWithObjectLenses() {
+        // Our record and lenses.
+        final Packed init = new Packed(0b0101, WIDE);
+        final IntLens<Packed> low = new IntLens<>(Packed::flags, (f, p) -> new Packed(f, p.state()))
+            .andThen(new IntBitLens(0, 2));
+        final LongLens<Packed> counter = new LongLens<>(Packed::state, (s, p) -> new Packed(p.flags(), s))
+            .andThen(new LongBitLens(16, 16));
+
+        // Testing if the lenses view, set and map the bit ranges of the fields.
+        assertEquals(1, low.viewInt(init));
+        assertEquals(new Packed(0b0110, WIDE), low.setInt(2, init));
+        assertEquals(0x1235L, counter.viewLong(counter.overLong(c -> c + 1, init)));
+
+        // Testing if setting a range to what it holds keeps the instance.
+        assertSame(init, low.setInt(1, init));
+    }
+
+    // Our record type.
+    private record Packed(int flags, long state) {
+    }
+}
@@ -0,0 +1,46 @@
+package net.nergi.lens4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+    @Test
+    void cacheShouldLoadOnlyOnce() {
+        // Our cache.
+        final BoundedCache<String, Integer> cache = new BoundedCache<>(4);
+        final int[] loads = {0};
+
+        // Testing if the second lookup hits the cache.
+        assertEquals(5, cache.get("hello", k -> ++loads[0] + 4));
+        assertEquals(5, cache.get("hello", k -> ++loads[0] + 4));
+        assertEquals(1, loads[0]);
+    }
+
+    @Test
+    void cacheShouldStayWithinCapacity() {
+        // Our cache.
+        final BoundedCache<Integer, Integer> cache = new BoundedCache<>(8);
+
+        // Testing if the cache never grows past its capacity.
+        for (int i = 0; i < 100; ++i) {
+            cache.get(i, k -> k * 2);
+            assertTrue(cache.size() <= 8);
+        }
+    }
+
+    @Test
+    void cacheShouldPreferEvictingUnusedEntries() {
+        // Our cache, with one entry used often.
+        final BoundedCache<Integer, Integer> cache = new BoundedCache<>(4);
+        cache.get(0, k -> k);
+
+        for (int i = 1; i < 20; ++i) {
+            cache.get(0, k -> -1);
+            cache.get(i, k -> k);
+        }
+
+        // Testing if the entry used often survived.
+        assertEquals(0, cache.get(0, k -> -1));
+    }
+}
@@ -0,0 +1,291 @@
+package net.nergi.lens4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+import org.junit.jupiter.api.Test;
+
+class LensTest {
+    // The deepest chain to test.
+    private static final int MAX_DEPTH = 16;
+
+    // Counts how many times any accessor has been run.
+    private int accessorCalls = 0;
+
+    // Compositional tests.
+    @Test
+    void composedLensShouldViewAndSetAtEveryDepth() {
+        for (int depth = 1; depth <= MAX_DEPTH; ++depth) {
+            // Our nest and lens.
+            final Nest init = Nest.of(depth, 5);
+            final SimpleLens<Nest, Integer> lens = deepLens(depth);
+
+            // Testing if the lens can view and set the innermost value.
+            assertEquals(5, lens.view(init));
+            assertEquals(10, lens.view(lens.set(10, init)));
+
+            // Testing if the nest remains unchanged.
+            assertEquals(5, lens.view(init));
+        }
+    }
+
+    @Test
+    void composedLensShouldRunEachAccessorOnceWhenSetting() {
+        for (int depth = 1; depth <= MAX_DEPTH; ++depth) {
+            // Our nest and lens.
+            final Nest init = Nest.of(depth, 5);
+            final SimpleLens<Nest, Integer> lens = deepLens(depth);
+
+            // Only the accessors above the innermost value need to be run.
+            accessorCalls = 0;
+            lens.set(10, init);
+            assertEquals(depth - 1, accessorCalls);
+        }
+    }
+
+    @Test
+    void composedLensShouldRunEachAccessorOnceWhenMapping() {
+        for (int depth = 1; depth <= MAX_DEPTH; ++depth) {
+            // Our nest and lens.
+            final Nest init = Nest.of(depth, 5);
+            final SimpleLens<Nest, Integer> lens = deepLens(depth);
+
+            // Every accessor down to the innermost value needs to be run, but only once.
+            accessorCalls = 0;
+            final Nest mapped = lens.over(i -> i + 5, init);
+            assertEquals(depth, accessorCalls);
+
+            // Testing if the lens mapped the correct value.
+            assertEquals(10, lens.view(mapped));
+        }
+    }
+
+    @Test
+    void composedLensShouldUseFusedModifiers() {
+        // Our nest.
+        final Nest init = Nest.of(2, 5);
+
+        // A lens with a modifier that does not need to view the value.
+        final SimpleLens<Nest, Integer> doubling = new SimpleLens<>(Nest::value, (v, n) -> new Nest(n.inner(), v),
+            (f, n) -> new Nest(n.inner(), n.value() * 2));
+
+        final SimpleLens<Nest, Integer> lens = innerLens().andThenSimple(doubling);
+
+        // Testing if the innermost modifier is used instead of the replacer.
+        assertEquals(10, lens.view(lens.over(i -> i + 1, init)));
+        assertEquals(6, lens.view(lens.set(6, init)));
+    }
+
+    @Test
+    void composedLensShouldFlattenRegardlessOfAssociation() {
+        // Our nest.
+        final Nest init = Nest.of(3, 5);
+
+        // Our lenses, associated both ways.
+        final SimpleLens<Nest, Nest> inner = innerLens();
+        final SimpleLens<Nest, Integer> value = valueLens();
+
+        final SimpleLens<Nest, Integer> leftNested = inner.andThenSimple(inner).andThenSimple(value);
+        final SimpleLens<Nest, Integer> rightNested = inner.andThenSimple(inner.andThenSimple(value));
+
+        // Testing if both lenses are the same path.
+        assertEquals(3, leftNested.stages().length);
+        assertEquals(3, rightNested.stages().length);
+        assertEquals(leftNested.view(init), rightNested.view(init));
+        assertEquals(leftNested.view(leftNested.set(7, init)), rightNested.view(rightNested.set(7, init)));
+    }
+
+    // Equality policy tests.
+    @Test
+    void equalityPolicyShouldKeepUnchangedInstances() {
+        // Our nest, with a value outside the boxing cache.
+        final Nest init = Nest.of(1, 1000);
+
+        // Our lenses.
+        final SimpleLens<Nest, Integer> none = valueLens().withEquality(EqualityPolicy.NONE);
+        final SimpleLens<Nest, Integer> identity = valueLens().withEquality(EqualityPolicy.IDENTITY);
+        final SimpleLens<Nest, Integer> equals = valueLens().withEquality(EqualityPolicy.EQUALS);
+
+        // Testing if each policy keeps the instance only when it considers the value unchanged.
+        assertNotSame(init, none.set(1000, init));
+        assertNotSame(init, identity.set(1000, init));
+        assertSame(init, equals.set(1000, init));
+        assertSame(init, equals.over(i -> i * 1, init));
+        assertSame(init, identity.over(i -> i, init));
+
+        // Testing if changes still go through.
+        assertEquals(7, equals.view(equals.set(7, init)));
+        assertEquals(1001, identity.view(identity.over(i -> i + 1, init)));
+    }
+
+    @Test
+    void equalityPolicyShouldKeepTheWholePathUnchanged() {
+        for (int depth = 1; depth <= MAX_DEPTH; ++depth) {
+            // Our nest and lenses.
+            final Nest init = Nest.of(depth, 5);
+            final SimpleLens<Nest, Integer> lens = deepLens(depth).withEquality(EqualityPolicy.EQUALS);
+            final SimpleLens<Nest, Integer> compiled = lens.compile();
+
+            // Testing if no-op updates return the original root, whether compiled or not.
+            assertSame(init, lens.set(5, init));
+            assertSame(init, lens.over(i -> i, init));
+            assertSame(init, compiled.set(5, init));
+            assertSame(init, compiled.over(i -> i, init));
+
+            // Testing if real updates still rebuild the path.
+            assertEquals(6, lens.view(lens.set(6, init)));
+            assertEquals(6, compiled.view(compiled.over(i -> i + 1, init)));
+        }
+    }
+
+    @Test
+    void equalityPolicyShouldComposeFromTheInnermostLens() {
+        // Our nest.
+        final Nest init = Nest.of(3, 5);
+
+        // Composing onto a lens that already skips no-op updates.
+        final SimpleLens<Nest, Integer> lens = innerLens().andThenSimple(innerLens())
+            .andThenSimple(valueLens().withEquality(EqualityPolicy.EQUALS));
+
+        // Testing if the whole path is kept.
+        assertSame(init, lens.set(5, init));
+        assertNotSame(init, lens.set(6, init));
+    }
+
+    @Test
+    void composedLensShouldRebuildWithoutEqualityPolicy() {
+        // Our nest.
+        final Nest init = Nest.of(3, 5);
+
+        // An innermost lens that hands back the same nest, composed without a policy.
+        final SimpleLens<Nest, Integer> unchanged = new SimpleLens<>(Nest::value, (v, n) -> n);
+        final SimpleLens<Nest, Integer> lens = innerLens().andThenSimple(innerLens()).andThenSimple(unchanged);
+        final SimpleLens<Nest, Integer> compiled = lens.compile();
+
+        // Testing if every object above the innermost one is still rebuilt, whether compiled or not.
+        assertNotSame(init, lens.set(5, init));
+        assertNotSame(init, lens.over(i -> i, init));
+        assertNotSame(init, compiled.set(5, init));
+        assertNotSame(init, compiled.over(i -> i, init));
+        assertNotSame(init.inner(), lens.set(5, init).inner());
+    }
+
+    // Compilation tests.
+    @Test
+    void compiledLensShouldBehaveLikeTheOriginal() {
+        for (int depth = 1; depth <= MAX_DEPTH; ++depth) {
+            // Our nest and lenses.
+            final Nest init = Nest.of(depth, 5);
+            final SimpleLens<Nest, Integer> lens = deepLens(depth);
+            final SimpleLens<Nest, Integer> compiled = lens.compile();
+
+            // Testing if the compiled lens views, sets and maps the same way.
+            assertEquals(lens.view(init), compiled.view(init));
+            assertEquals(lens.view(lens.set(10, init)), compiled.view(compiled.set(10, init)));
+            assertEquals(lens.view(lens.over(i -> i * 3, init)), compiled.view(compiled.over(i -> i * 3, init)));
+
+            // Testing if the compiled lens still runs each accessor once.
+            accessorCalls = 0;
+            compiled.over(i -> i + 5, init);
+            assertEquals(depth, accessorCalls);
+        }
+    }
+
+    @Test
+    void compiledLensShouldRunHiddenClasses() {
+        // Our compiled lens.
+        final SimpleLens<Nest, Integer> compiled = deepLens(3).compile();
+
+        // Testing if each function is an instance of its own hidden class.
+        assertTrue(compiled.accessor().getClass().isHidden());
+        assertTrue(compiled.replacer().getClass().isHidden());
+        assertTrue(compiled.modifier().getClass().isHidden());
+        assertNotSame(compiled.replacer().getClass(), compiled.modifier().getClass());
+    }
+
+    @Test
+    void compiledLensesShouldCompose() {
+        // Our nest.
+        final Nest init = Nest.of(4, 5);
+
+        // Composing compiled lenses together, then compiling the result.
+        final SimpleLens<Nest, Nest> outer = innerLens().andThenSimple(innerLens()).compile();
+        final SimpleLens<Nest, Integer> inner = innerLens().andThenSimple(valueLens()).compile();
+        final SimpleLens<Nest, Integer> lens = outer.andThenSimple(inner).compile();
+
+        // Testing if the lens views, sets and maps the innermost value.
+        assertEquals(5, lens.view(init));
+        assertEquals(8, lens.view(lens.set(8, init)));
+        assertEquals(6, lens.view(lens.over(i -> i + 1, init)));
+    }
+
+    @Test
+    void compiledLensShouldPropagateExceptions() {
+        // A lens that always fails.
+        final SimpleLens<Nest, Integer> failing = new SimpleLens<>(n -> {
+            throw new IllegalStateException();
+        }, (v, n) -> n);
+
+        final SimpleLens<Nest, Integer> lens = innerLens().andThenSimple(failing).compile();
+
+        // Testing if the original exception is thrown.
+        assertThrows(IllegalStateException.class, () -> lens.view(Nest.of(2, 5)));
+    }
+
+    @Test
+    void compiledLensShouldWrapCheckedExceptions() {
+        // A lens that always fails with a checked exception, thrown sneakily.
+        final SimpleLens<Nest, Integer> failing =
+            new SimpleLens<>(Nest::value, (v, n) -> sneakyThrow(new IOException()));
+        final SimpleLens<Nest, Integer> lens = innerLens().andThenSimple(failing).compile();
+
+        // Testing if the exception is wrapped, as it cannot be thrown as-is.
+        final UndeclaredThrowableException thrown =
+            assertThrows(UndeclaredThrowableException.class, () -> lens.set(1, Nest.of(2, 5)));
+        assertInstanceOf(IOException.class, thrown.getCause());
+    }
+
+    // Throws any exception, checked or not, without declaring it.
+    @SuppressWarnings("unchecked")
+    private static <T, E extends Throwable> T sneakyThrow(Throwable thrown) throws E {
+        throw (E) thrown;
+    }
+
+    // Builds a lens focusing on the value of a nest at the given depth.
+    private SimpleLens<Nest, Integer> deepLens(int depth) {
+        SimpleLens<Nest, Integer> lens = valueLens();
+        for (int i = 1; i < depth; ++i) {
+            lens = innerLens().andThenSimple(lens);
+        }
+
+        return lens;
+    }
+
+    private SimpleLens<Nest, Nest> innerLens() {
+        return new SimpleLens<>(n -> {
+            ++accessorCalls;
+            return n.inner();
+        }, (i, n) -> new Nest(i, n.value()));
+    }
+
+    private SimpleLens<Nest, Integer> valueLens() {
+        return new SimpleLens<>(n -> {
+            ++accessorCalls;
+            return n.value();
+        }, (v, n) -> new Nest(n.inner(), v));
+    }
+
+    // Our nested container type.
+    private record Nest(Nest inner, int value) {
+        // Builds a nest where the value is at the given depth.
+        static Nest of(int depth, int value) {
+            Nest nest = new Nest(null, value);
+            for (int i = 1; i < depth; ++i) {
+                nest = new Nest(nest, 0);
+            }
+
+            return nest;
+        }
+    }
+}
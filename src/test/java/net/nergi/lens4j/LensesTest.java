@@ -0,0 +1,240 @@
+package net.nergi.lens4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class LensesTest {
+    // Record lens tests.
+    @Test
+    void recordLensShouldViewSetAndMapComponents() {
+        // Our box.
+        final TestBox init = new TestBox(5, "hello", 2.5);
+
+        // Our derived lenses.
+        final SimpleLens<TestBox, Integer> number = Lenses.forRecord(TestBox.class, "number");
+        final SimpleLens<TestBox, String> text = Lenses.forRecord(TestBox.class, "text");
+        final SimpleLens<TestBox, Double> ratio = Lenses.forRecord(TestBox.class, "ratio");
+
+        // Testing if the lenses can view the correct values.
+        assertEquals(5, number.view(init));
+        assertEquals("hello", text.view(init));
+        assertEquals(2.5, ratio.view(init));
+
+        // Testing if the lenses only replace their own component.
+        assertEquals(new TestBox(10, "hello", 2.5), number.set(10, init));
+        assertEquals(new TestBox(5, "HELLO", 2.5), text.over(String::toUpperCase, init));
+        assertEquals(new TestBox(5, "hello", 5.0), ratio.over(r -> r * 2, init));
+
+        // Testing if the box remains unchanged.
+        assertEquals(new TestBox(5, "hello", 2.5), init);
+    }
+
+    @Test
+    void recordLensesShouldComposeAndCompile() {
+        // Our nested box.
+        final TestRecBox init = new TestRecBox(new TestBox(5, "hello", 2.5), 1);
+
+        // Our composite lenses.
+        final SimpleLens<TestRecBox, TestBox> inner = Lenses.forRecord(TestRecBox.class, "inner");
+        final SimpleLens<TestBox, Integer> number = Lenses.forRecord(TestBox.class, "number");
+        final SimpleLens<TestRecBox, Integer> lens = inner.andThenSimple(number);
+        final SimpleLens<TestRecBox, Integer> compiled = lens.compile();
+
+        // Our test modifier function.
+        final UnaryOperator<Integer> operator = i -> i + 5;
+
+        // Testing if both lenses modify the nested component.
+        final TestRecBox expected = new TestRecBox(new TestBox(10, "hello", 2.5), 1);
+        assertEquals(expected, lens.over(operator, init));
+        assertEquals(expected, compiled.over(operator, init));
+        assertEquals(expected, compiled.set(10, init));
+    }
+
+    @Test
+    void recordLensesShouldBeCached() {
+        // Testing if the same component gives back the same lens.
+        assertSame(Lenses.forRecord(TestBox.class, "text"), Lenses.forRecord(TestBox.class, "text"));
+
+        // Testing if lenses built on first use by several threads at once are still the same.
+        final List<SimpleLens<Pixel, Integer>> lenses = IntStream.range(0, 64).parallel()
+            .mapToObj(i -> Lenses.<Pixel, Integer>forRecord(Pixel.class, "green"))
+            .toList();
+        for (final SimpleLens<Pixel, Integer> lens : lenses) {
+            assertSame(lenses.get(0), lens);
+        }
+    }
+
+    @Test
+    void recordLensesShouldRejectUnknownComponents() {
+        // Testing if a missing component is rejected.
+        assertThrows(IllegalArgumentException.class, () -> Lenses.forRecord(TestBox.class, "missing"));
+    }
+
+    // Path lens tests.
+    @Test
+    void pathLensShouldFollowRecordComponentsAndWithers() {
+        // Our nested box, with a wither-based class at the bottom.
+        final TestRecBox init = new TestRecBox(new TestBox(5, "hello", 2.5), 1);
+        final Holder holder = new Holder(init, true);
+
+        // Our path lenses.
+        final SimpleLens<Holder, Integer> number = Lenses.path(Holder.class, "box.inner.number");
+        final SimpleLens<Holder, Boolean> active = Lenses.path(Holder.class, "active");
+
+        // Testing if the lenses can view, set and map along the path.
+        assertEquals(5, number.view(holder));
+        assertEquals(6, number.over(i -> i + 1, holder).getBox().inner().number());
+        assertEquals(false, active.set(false, holder).isActive());
+
+        // Testing if the holder remains unchanged.
+        assertEquals(init, holder.getBox());
+        assertTrue(holder.isActive());
+    }
+
+    @Test
+    void pathLensesShouldBeCached() {
+        // Testing if the same path gives back the same lens.
+        assertSame(Lenses.path(TestRecBox.class, "inner.text"), Lenses.path(TestRecBox.class, "inner.text"));
+    }
+
+    @Test
+    void pathLensesShouldShareTheLensesOfTheirProperties() {
+        // Our paths, sharing a wither-based property.
+        final SimpleLens<Holder, Integer> number = Lenses.path(Holder.class, "box.inner.number");
+        final SimpleLens<Holder, Integer> depth = Lenses.path(Holder.class, "box.depth");
+
+        // Testing if both paths start with the same lens.
+        assertSame(number.stages()[0], depth.stages()[0]);
+        assertSame(number.stages()[1], Lenses.path(Holder.class, "box.inner").stages()[1]);
+    }
+
+    @Test
+    void pathLensesShouldRejectUnknownProperties() {
+        // Testing if missing and empty properties are rejected.
+        assertThrows(IllegalArgumentException.class, () -> Lenses.path(TestRecBox.class, "inner.missing"));
+        assertThrows(IllegalArgumentException.class, () -> Lenses.path(TestRecBox.class, "inner..text"));
+        assertThrows(IllegalArgumentException.class, () -> Lenses.path(Holder.class, "readOnly"));
+    }
+
+    // Product lens tests.
+    @Test
+    void zippedRecordLensesShouldRebuildOnce() {
+        // Our event and lenses.
+        final Event init = new Event(1, "a", 2L, 3.0);
+        final SimpleLens<Event, Integer> id = Lenses.forRecord(Event.class, "id");
+        final SimpleLens<Event, String> name = Lenses.forRecord(Event.class, "name");
+        final SimpleLens<Event, Double> score = Lenses.forRecord(Event.class, "score");
+
+        final SimpleLens<Event, Pair<Integer, String>> pair = Lens.zip(id, name);
+        final SimpleLens<Event, Triple<Integer, String, Double>> triple = Lens.zip(id, name, score);
+        final SimpleLens<Event, List<Object>> all = Lens.zipAll(score, id);
+
+        // Testing if the lenses view every field.
+        assertEquals(new Pair<>(1, "a"), pair.view(init));
+        assertEquals(new Triple<>(1, "a", 3.0), triple.view(init));
+        assertEquals(List.of(3.0, 1), all.view(init));
+
+        // Testing if each set only constructs one new event.
+        Event.constructions = 0;
+        final Event pairSet = pair.set(new Pair<>(5, "b"), init);
+        assertEquals(1, Event.constructions);
+        assertEquals(new Event(5, "b", 2L, 3.0), pairSet);
+
+        Event.constructions = 0;
+        final Event tripleSet = triple.set(new Triple<>(5, "b", 9.0), init);
+        assertEquals(1, Event.constructions);
+        assertEquals(new Event(5, "b", 2L, 9.0), tripleSet);
+
+        Event.constructions = 0;
+        final Event allSet = all.set(List.of(4.0, 7), init);
+        assertEquals(1, Event.constructions);
+        assertEquals(new Event(7, "a", 2L, 4.0), allSet);
+    }
+
+    @Test
+    void zippedPathLensesShouldRebuildTheSharedPathOnce() {
+        // Our nested box and lenses sharing a path.
+        final TestRecBox init = new TestRecBox(new TestBox(5, "hello", 2.5), 1);
+        final SimpleLens<TestRecBox, Integer> number = Lenses.path(TestRecBox.class, "inner.number");
+        final SimpleLens<TestRecBox, String> text = Lenses.path(TestRecBox.class, "inner.text");
+
+        // Testing if both fields are set.
+        final SimpleLens<TestRecBox, Pair<Integer, String>> zipped = Lens.zip(number, text);
+        assertEquals(new TestRecBox(new TestBox(6, "bye", 2.5), 1), zipped.set(new Pair<>(6, "bye"), init));
+    }
+
+    @Test
+    void zippedLensesShouldFallBackToSettingInTurn() {
+        // Our box, with hand-written lenses.
+        final TestBox init = new TestBox(5, "hello", 2.5);
+        final SimpleLens<TestBox, Integer> number =
+            new SimpleLens<>(TestBox::number, (n, tb) -> new TestBox(n, tb.text(), tb.ratio()));
+        final SimpleLens<TestBox, String> text = Lenses.forRecord(TestBox.class, "text");
+
+        // Testing if both fields are set.
+        assertEquals(new TestBox(1, "bye", 2.5), Lens.zip(number, text).set(new Pair<>(1, "bye"), init));
+    }
+
+    @Test
+    void zippedLensesShouldRejectOverlappingComponents() {
+        // Our lens.
+        final SimpleLens<TestBox, Integer> number = Lenses.forRecord(TestBox.class, "number");
+
+        // Testing if the same component cannot be zipped with itself.
+        assertThrows(IllegalArgumentException.class, () -> Lens.zip(number, number));
+    }
+
+    // Our record types.
+    private record TestBox(int number, String text, double ratio) {
+    }
+
+    private record TestRecBox(TestBox inner, int depth) {
+    }
+
+    private record Pixel(int red, int green, int blue) {
+    }
+
+    private record Event(int id, String name, long time, double score) {
+        // Counts how many events have been constructed.
+        static int constructions = 0;
+
+        Event {
+            ++constructions;
+        }
+    }
+
+    // Our class with getters and withers.
+    public static final class Holder {
+        private final TestRecBox box;
+        private final boolean active;
+
+        public Holder(TestRecBox box, boolean active) {
+            this.box = box;
+            this.active = active;
+        }
+
+        public TestRecBox getBox() {
+            return box;
+        }
+
+        public Holder withBox(TestRecBox box) {
+            return new Holder(box, active);
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public Holder withActive(boolean active) {
+            return new Holder(box, active);
+        }
+
+        public int getReadOnly() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package net.nergi.lens4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class PrimitiveLensTest {
+    // Constants to test for.
+    private static final Counter INIT = new Counter(3, 40L, 0.5);
+
+    @Test
+    void intLensShouldViewSetAndMap() {
+        // Our lens.
+        final IntLens<Counter> hits = new IntLens<>(Counter::hits, (h, c) -> new Counter(h, c.total(), c.ratio()));
+
+        // Testing if the lens views, sets and maps the field.
+        assertEquals(3, hits.viewInt(INIT));
+        assertEquals(new Counter(7, 40L, 0.5), hits.setInt(7, INIT));
+        assertEquals(new Counter(4, 40L, 0.5), hits.overInt(h -> h + 1, INIT));
+
+        // Testing if the boxed lens does the same.
+        final SimpleLens<Counter, Integer> boxed = hits.boxed();
+        assertEquals(3, boxed.view(INIT));
+        assertEquals(new Counter(6, 40L, 0.5), boxed.over(h -> h * 2, INIT));
+    }
+
+    @Test
+    void longLensShouldViewSetAndMap() {
+        // Our lens.
+        final LongLens<Counter> total = new LongLens<>(Counter::total, (t, c) -> new Counter(c.hits(), t, c.ratio()));
+
+        // Testing if the lens views, sets and maps the field.
+        assertEquals(40L, total.viewLong(INIT));
+        assertEquals(new Counter(3, 1L << 40, 0.5), total.setLong(1L << 40, INIT));
+        assertEquals(new Counter(3, 39L, 0.5), total.overLong(t -> t - 1, INIT));
+        assertEquals(new Counter(3, 41L, 0.5), total.boxed().set(41L, INIT));
+    }
+
+    @Test
+    void doubleLensShouldViewSetAndMap() {
+        // Our lens.
+        final DoubleLens<Counter> ratio =
+            new DoubleLens<>(Counter::ratio, (r, c) -> new Counter(c.hits(), c.total(), r));
+
+        // Testing if the lens views, sets and maps the field.
+        assertEquals(0.5, ratio.viewDouble(INIT));
+        assertEquals(new Counter(3, 40L, 0.25), ratio.setDouble(0.25, INIT));
+        assertEquals(new Counter(3, 40L, 1.5), ratio.overDouble(r -> r * 3, INIT));
+        assertEquals(0.5, ratio.boxed().view(INIT));
+    }
+
+    // Compositional tests.
+    @Test
+    void composedPrimitiveLensesShouldReachNestedFields() {
+        // Our tracker and lenses.
+        final Tracker init = new Tracker("a", new Stats(INIT, 2));
+        final SimpleLens<Tracker, Stats> stats = Lenses.forRecord(Tracker.class, "stats");
+        final SimpleLens<Stats, Counter> counter = Lenses.forRecord(Stats.class, "counter");
+
+        final IntLens<Tracker> hits = stats.andThenInt(counter.andThenInt(
+            new IntLens<>(Counter::hits, (h, c) -> new Counter(h, c.total(), c.ratio()))));
+        final LongLens<Tracker> total = stats.andThenSimple(counter).andThenLong(
+            new LongLens<>(Counter::total, (t, c) -> new Counter(c.hits(), t, c.ratio())));
+        final DoubleLens<Tracker> ratio = stats.andThenSimple(counter).andThenDouble(
+            new DoubleLens<>(Counter::ratio, (r, c) -> new Counter(c.hits(), c.total(), r)));
+
+        // Testing if the lenses view, set and map the innermost fields.
+        assertEquals(3, hits.viewInt(init));
+        assertEquals(new Tracker("a", new Stats(new Counter(4, 40L, 0.5), 2)), hits.overInt(h -> h + 1, init));
+        assertEquals(new Tracker("a", new Stats(new Counter(3, 0L, 0.5), 2)), total.setLong(0L, init));
+        assertEquals(1.0, ratio.viewDouble(ratio.overDouble(r -> r * 2, init)));
+
+        // Testing if the boxed lens runs along the same path.
+        assertEquals(9, hits.boxed().view(hits.boxed().set(9, init)));
+    }
+
+    @Test
+    void composedPrimitiveLensesShouldKeepUnchangedInstancesOnlyWithAPolicy() {
+        // Our tracker, and a field lens which keeps the counter if the hits are the same.
+        final Tracker init = new Tracker("a", new Stats(INIT, 2));
+        final IntLens<Counter> field =
+            new IntLens<>(Counter::hits, (h, c) -> h == c.hits() ? c : new Counter(h, c.total(), 0));
+        final SimpleLens<Tracker, Stats> stats = Lenses.forRecord(Tracker.class, "stats");
+        final SimpleLens<Stats, Counter> counter = Lenses.forRecord(Stats.class, "counter");
+
+        // Our lenses, along a plain path and along one that skips no-op updates.
+        final IntLens<Tracker> plain = stats.andThenSimple(counter).andThenInt(field);
+        final IntLens<Tracker> guarded =
+            stats.andThenSimple(counter.withEquality(EqualityPolicy.IDENTITY)).andThenInt(field);
+
+        // Testing if the plain path is rebuilt, just like its boxed lens.
+        assertNotSame(init, plain.setInt(3, init));
+        assertNotSame(init, plain.overInt(h -> h, init));
+        assertNotSame(init, plain.boxed().set(3, init));
+
+        // Testing if the guarded path is kept whole.
+        assertSame(init, guarded.setInt(3, init));
+        assertSame(init, guarded.overInt(h -> h, init));
+        assertSame(init, guarded.boxed().set(3, init));
+        assertNotSame(init, guarded.setInt(4, init));
+    }
+
+    // Our record types.
+    private record Counter(int hits, long total, double ratio) {
+    }
+
+    private record Stats(Counter counter, int version) {
+    }
+
+    private record Tracker(String name, Stats stats) {
+    }
+}
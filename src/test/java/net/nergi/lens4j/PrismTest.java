@@ -0,0 +1,92 @@
+package net.nergi.lens4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Optional;
+import net.nergi.lens4j.extra.Either;
+import net.nergi.lens4j.extra.EitherPrisms;
+import org.junit.jupiter.api.Test;
+
+class PrismTest {
+    // Constants to test for.
+    private static final Either<String, Integer> LEFT = Either.toLeft("error");
+    private static final Either<String, Integer> RIGHT = Either.toRight(5);
+
+    @Test
+    void eitherPrismsShouldFocusOnTheirCase() {
+        // Our prisms.
+        final Prism<Either<String, Integer>, String> left = EitherPrisms.left();
+        final Prism<Either<String, Integer>, Integer> right = EitherPrisms.right();
+
+        // Testing if each prism views only its own case.
+        assertEquals(Optional.of("error"), left.preview(LEFT));
+        assertEquals(Optional.empty(), left.preview(RIGHT));
+        assertEquals(Optional.of(5), right.preview(RIGHT));
+        assertTrue(right.matches(RIGHT));
+        assertFalse(right.matches(LEFT));
+
+        // Testing if each prism builds its own case.
+        assertEquals(Either.toLeft("built"), left.review("built"));
+        assertEquals(Either.toRight(7), right.review(7));
+    }
+
+    @Test
+    void prismsShouldKeepOtherCases() {
+        // Our prism.
+        final Prism<Either<String, Integer>, Integer> right = EitherPrisms.right();
+
+        // Testing if the matching case is updated.
+        assertEquals(Either.toRight(6), right.over(i -> i + 1, RIGHT));
+        assertEquals(Either.toRight(1), right.set(1, RIGHT));
+
+        // Testing if other cases and unchanged items are kept as-is.
+        assertSame(LEFT, right.over(i -> i + 1, LEFT));
+        assertSame(LEFT, right.set(1, LEFT));
+        assertSame(RIGHT, right.over(i -> i, RIGHT));
+    }
+
+    @Test
+    void composedPrismsShouldFocusOnNestedCases() {
+        // Our shapes, and prisms into them.
+        final Either<String, Shape> circle = Either.toRight(new Circle(2));
+        final Either<String, Shape> square = Either.toRight(new Square(3));
+        final Prism<Either<String, Shape>, Circle> circles =
+            EitherPrisms.<String, Shape>right().andThen(Prisms.instanceOf(Circle.class));
+
+        // Testing if only the nested case matches.
+        assertEquals(Optional.of(new Circle(2)), circles.preview(circle));
+        assertEquals(Optional.empty(), circles.preview(square));
+        assertEquals(Either.toRight(new Circle(4)), circles.over(c -> new Circle(c.radius() * 2), circle));
+        assertSame(square, circles.over(c -> new Circle(c.radius() * 2), square));
+        assertSame(LEFT, EitherPrisms.<String, Integer>right()
+            .andThen(new Prism<Integer, Integer>(i -> true, i -> i, i -> i)).set(0, LEFT));
+    }
+
+    @Test
+    void composedPrismsShouldExtractOnce() {
+        // Counts how many times the outer item has been extracted.
+        final int[] extractions = {0};
+        final Prism<Either<String, Integer>, Integer> right = new Prism<>(Either::isRight, either -> {
+            ++extractions[0];
+            return either.fromRight();
+        }, Either::toRight);
+        final Prism<Either<String, Integer>, Integer> positive =
+            right.andThen(new Prism<>(i -> i > 0, i -> i, i -> i));
+
+        // Testing if viewing and mapping through the composed prism extract the outer item once each.
+        assertEquals(Optional.of(5), positive.preview(RIGHT));
+        assertEquals(1, extractions[0]);
+        assertEquals(Either.toRight(6), positive.over(i -> i + 1, RIGHT));
+        assertEquals(2, extractions[0]);
+    }
+
+    // Our sealed hierarchy.
+    private sealed interface Shape permits Circle, Square {
+    }
+
+    private record Circle(int radius) implements Shape {
+    }
+
+    private record Square(int side) implements Shape {
+    }
+}
@@ -0,0 +1,129 @@
+package net.nergi.lens4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class UpdatePlanTest {
+    // Constants to test for.
+    private static final Order INIT = new Order(new Customer("Ann", new Address("Oak St", "Leeds")), 3, 9.5);
+
+    @Test
+    void planShouldApplyEveryUpdate() {
+        // Our plan.
+        final UpdatePlan<Order> plan = new UpdatePlan<Order>()
+            .set(Lenses.path(Order.class, "customer.address.street"), "Elm St")
+            .set(Lenses.path(Order.class, "customer.address.city"), "York")
+            .over(Lenses.<Order, String>path(Order.class, "customer.name"), String::toUpperCase)
+            .set(Lenses.path(Order.class, "quantity"), 4);
+
+        // Testing if the plan gives the same result as applying each update in turn.
+        final Order expected = new Order(new Customer("ANN", new Address("Elm St", "York")), 4, 9.5);
+        assertEquals(expected, plan.apply(INIT));
+        assertEquals(4, plan.size());
+
+        // Testing if the original remains unchanged.
+        assertEquals("Oak St", INIT.customer().address().street());
+    }
+
+    @Test
+    void planShouldRebuildSharedParentsOnce() {
+        // Our plan, touching two fields of the address and one of the customer.
+        final UpdatePlan<Order> plan = new UpdatePlan<Order>()
+            .set(Lenses.path(Order.class, "customer.address.street"), "Elm St")
+            .set(Lenses.path(Order.class, "customer.address.city"), "York")
+            .set(Lenses.path(Order.class, "customer.name"), "Bob");
+
+        // Testing if each record along the paths is built only once.
+        Address.constructions = 0;
+        Customer.constructions = 0;
+        Order.constructions = 0;
+        plan.apply(INIT);
+
+        assertEquals(1, Address.constructions);
+        assertEquals(1, Customer.constructions);
+        assertEquals(1, Order.constructions);
+    }
+
+    @Test
+    void planShouldKeepTheOrderOfOverlappingUpdates() {
+        // Our lenses.
+        final SimpleLens<Order, Address> address = Lenses.path(Order.class, "customer.address");
+        final SimpleLens<Order, String> city = Lenses.path(Order.class, "customer.address.city");
+
+        // Setting the address after the city discards the city.
+        final UpdatePlan<Order> replacing = new UpdatePlan<Order>()
+            .set(city, "York")
+            .set(address, new Address("Elm St", "Hull"));
+        assertEquals("Hull", replacing.apply(INIT).customer().address().city());
+
+        // Mapping over the address after the city sees the new city.
+        final UpdatePlan<Order> mapping = new UpdatePlan<Order>()
+            .set(city, "York")
+            .over(address, a -> new Address(a.city(), a.street()));
+        assertEquals("York", mapping.apply(INIT).customer().address().street());
+
+        // Setting the city after the address updates the new address.
+        final UpdatePlan<Order> refining = new UpdatePlan<Order>()
+            .set(address, new Address("Elm St", "Hull"))
+            .over(city, String::toUpperCase);
+        assertEquals(new Address("Elm St", "HULL"), refining.apply(INIT).customer().address());
+    }
+
+    @Test
+    void planShouldKeepUnchangedInstances() {
+        // An empty plan, and a plan that only maps to the same values.
+        final UpdatePlan<Order> empty = new UpdatePlan<>();
+        final UpdatePlan<Order> identity = new UpdatePlan<Order>()
+            .over(Lenses.<Order, String>path(Order.class, "customer.address.city"), c -> c)
+            .over(Lenses.<Order, String>path(Order.class, "customer.name"), n -> n);
+
+        // Testing if the original instance is returned.
+        assertSame(INIT, empty.apply(INIT));
+        assertSame(INIT, identity.apply(INIT));
+    }
+
+    @Test
+    void planShouldWorkWithHandWrittenLenses() {
+        // Our lenses, which do not share any stages.
+        final SimpleLens<Order, Integer> quantity = new SimpleLens<>(Order::quantity,
+            (q, o) -> new Order(o.customer(), q, o.price()));
+        final SimpleLens<Order, Double> price = new SimpleLens<>(Order::price,
+            (p, o) -> new Order(o.customer(), o.quantity(), p));
+
+        final UpdatePlan<Order> plan = new UpdatePlan<Order>()
+            .over(quantity, q -> q * 2)
+            .set(price, 1.0);
+
+        // Testing if the updates are applied one after another.
+        assertEquals(new Order(INIT.customer(), 6, 1.0), plan.apply(INIT));
+    }
+
+    // Our record types.
+    private record Address(String street, String city) {
+        // Counts how many addresses have been constructed.
+        static int constructions = 0;
+
+        Address {
+            ++constructions;
+        }
+    }
+
+    private record Customer(String name, Address address) {
+        // Counts how many customers have been constructed.
+        static int constructions = 0;
+
+        Customer {
+            ++constructions;
+        }
+    }
+
+    private record Order(Customer customer, int quantity, double price) {
+        // Counts how many orders have been constructed.
+        static int constructions = 0;
+
+        Order {
+            ++constructions;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package net.nergi.lens4j.extra;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import net.nergi.lens4j.Pair;
+import org.junit.jupiter.api.Test;
+
+class EitherCollectorsTest {
+    @Test
+    void partitionShouldSplitLeftsAndRights() {
+        // Our stream.
+        final Stream<Either<String, Integer>> items =
+            Stream.of(Either.toRight(1), Either.toLeft("a"), Either.toRight(2), Either.toLeft("b"));
+
+        // Testing if both sides are kept in order.
+        final Pair<List<String>, List<Integer>> result = items.collect(EitherCollectors.partition());
+        assertEquals(new Pair<>(List.of("a", "b"), List.of(1, 2)), result);
+        assertThrows(UnsupportedOperationException.class, () -> result.first().add("c"));
+    }
+
+    @Test
+    void collectorsShouldGiveTheSameResultsInParallel() {
+        // Our numbers, where multiples of seven are errors.
+        final List<Either<Integer, Integer>> items = IntStream.range(0, 100_000)
+            .<Either<Integer, Integer>>mapToObj(i -> i % 7 == 0 ? Either.toLeft(i) : Either.toRight(i))
+            .toList();
+
+        // Testing if parallel streams keep encounter order.
+        assertEquals(items.stream().collect(EitherCollectors.partition()),
+            items.parallelStream().collect(EitherCollectors.partition()));
+        assertEquals(items.stream().collect(EitherCollectors.rightsCountingLefts()),
+            items.parallelStream().collect(EitherCollectors.rightsCountingLefts()));
+    }
+
+    @Test
+    void rightsCountingLeftsShouldOnlyCountLefts() {
+        // Our stream.
+        final Stream<Either<String, Integer>> items =
+            Stream.of(Either.toLeft("a"), Either.toRight(1), Either.toLeft("b"), Either.toLeft("c"));
+
+        // Testing if only the rights are kept.
+        assertEquals(new Pair<>(List.of(1), 3L), items.collect(EitherCollectors.rightsCountingLefts()));
+    }
+
+    @Test
+    void partitioningShouldUseDownstreamCollectors() {
+        // Our stream.
+        final Stream<Either<String, Integer>> items =
+            Stream.of(Either.toRight(1), Either.toLeft("a"), Either.toRight(2), Either.toLeft("b"));
+
+        // Testing if each side goes to its own collector.
+        final Pair<String, Integer> result = items.collect(EitherCollectors.partitioning(
+            Collectors.joining(","), Collectors.summingInt(i -> i)));
+        assertEquals(new Pair<>("a,b", 3), result);
+    }
+}
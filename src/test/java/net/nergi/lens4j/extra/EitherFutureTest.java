@@ -0,0 +1,86 @@
+package net.nergi.lens4j.extra;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class EitherFutureTest {
+    // Counts how many steps have been run by the counting executor.
+    private final AtomicInteger steps = new AtomicInteger();
+
+    // Runs each step on the calling thread, counting it.
+    private final Executor counting = task -> {
+        steps.incrementAndGet();
+        task.run();
+    };
+
+    @Test
+    void stepsShouldRunOnRights() {
+        // Our pipeline.
+        final EitherFuture<String, Integer> result = EitherFuture.<String, Integer>supplyAsync(() -> Either.toRight(2))
+            .map(i -> i * 5)
+            .flatMapEither(i -> Either.toRight(i + 1))
+            .flatMap(i -> EitherFuture.completed(Either.toRight(i * 2)));
+
+        // Testing if every step ran.
+        assertEquals(Either.toRight(22), result.join());
+    }
+
+    @Test
+    void stepsShouldBeSkippedAfterALeft() {
+        // Our left, and a pipeline after it.
+        final Either<String, Integer> left = Either.toLeft("bad");
+        final EitherFuture<String, Integer> result = EitherFuture.completed(left)
+            .withExecutor(counting)
+            .map(i -> i * 5)
+            .flatMapEither(i -> Either.toRight(i + 1))
+            .flatMap(i -> EitherFuture.completed(Either.toRight(i * 2)));
+
+        // Testing if nothing was scheduled, and the same left came out.
+        assertSame(left, result.join());
+        assertEquals(0, steps.get());
+    }
+
+    @Test
+    void stepsShouldRunOnTheGivenExecutor() {
+        // Our pipeline, with a left part way through.
+        final EitherFuture<String, Integer> result = EitherFuture.supplyAsync(() -> Either.<String, Integer>toRight(1),
+                counting)
+            .map(i -> i + 1)
+            .flatMapEither(i -> Either.<String, Integer>toLeft("stop at " + i))
+            .map(i -> i + 1);
+
+        // Testing if only the steps up to the left were run.
+        assertEquals(Either.toLeft("stop at 2"), result.join());
+        assertEquals(3, steps.get());
+    }
+
+    @Test
+    void failuresShouldCompleteThePipelineExceptionally() {
+        // A step that throws, and a future that fails.
+        final EitherFuture<String, Integer> throwing = EitherFuture.<String, Integer>completed(Either.toRight(1))
+            .map(i -> {
+                throw new IllegalStateException();
+            });
+        final EitherFuture<String, Integer> failed =
+            EitherFuture.<String, Integer>of(CompletableFuture.failedFuture(new IllegalStateException()))
+                .map(i -> i + 1);
+
+        // Testing if both failures reach the end.
+        final CompletionException thrown = assertThrows(CompletionException.class, throwing::join);
+        assertInstanceOf(IllegalStateException.class, thrown.getCause());
+        assertThrows(CompletionException.class, failed::join);
+    }
+
+    @Test
+    void defaultExecutorShouldRunSteps() {
+        assertNotNull(EitherFuture.defaultExecutor());
+        assertEquals(Either.toRight("5"), EitherFuture.completed(Either.<String, Integer>toRight(5))
+            .map(Object::toString)
+            .join());
+    }
+}
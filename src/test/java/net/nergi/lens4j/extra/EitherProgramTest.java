@@ -0,0 +1,82 @@
+package net.nergi.lens4j.extra;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class EitherProgramTest {
+    // Constants to test for.
+    private static final int DEPTH = 200_000;
+
+    @Test
+    void stepsShouldRunOnRights() {
+        // Our program.
+        final EitherProgram<String, Integer> program = EitherProgram.<String, Integer>right(2)
+            .map(i -> i * 5)
+            .flatMapEither(i -> Either.toRight(i + 1))
+            .flatMap(i -> EitherProgram.right(i * 2));
+
+        // Testing if every step ran, and the program can be run again.
+        assertEquals(Either.toRight(22), program.run());
+        assertEquals(Either.toRight(22), program.run());
+    }
+
+    @Test
+    void stepsShouldBeSkippedAfterALeft() {
+        // Our left, and a program after it.
+        final Either<String, Integer> left = Either.toLeft("bad");
+        final AtomicInteger steps = new AtomicInteger();
+        final EitherProgram<String, Integer> program = EitherProgram.of(left)
+            .map(steps::addAndGet)
+            .flatMap(i -> EitherProgram.right(steps.incrementAndGet()));
+
+        // Testing if no step ran, and the same left came out.
+        assertSame(left, program.run());
+        assertEquals(0, steps.get());
+
+        // Testing if a left part way through skips the rest.
+        assertEquals(Either.toLeft("stop at 3"), EitherProgram.<String, Integer>right(3)
+            .flatMapEither(i -> Either.<String, Integer>toLeft("stop at " + i))
+            .map(i -> steps.incrementAndGet())
+            .run());
+        assertEquals(0, steps.get());
+    }
+
+    @Test
+    void deepRecursionShouldNotOverflowTheStack() {
+        // Testing if nesting inside the steps runs in constant stack.
+        assertEquals(Either.toRight((long) DEPTH * (DEPTH + 1) / 2), sum(DEPTH).run());
+
+        // Testing if a left deep down is returned as-is.
+        assertEquals(Either.toLeft("odd"), sumEven(DEPTH + 1).run());
+    }
+
+    @Test
+    void longChainsShouldNotOverflowTheStack() {
+        // Our program, built from a long chain of steps.
+        EitherProgram<String, Integer> program = EitherProgram.right(0);
+        for (int i = 0; i < DEPTH; ++i) {
+            program = i % 2 == 0 ? program.map(n -> n + 1) : program.flatMap(n -> EitherProgram.right(n + 1));
+        }
+
+        // Testing if every step ran.
+        assertEquals(Either.toRight(DEPTH), program.run());
+    }
+
+    // Sums the numbers up to n recursively.
+    private static EitherProgram<String, Long> sum(int n) {
+        return n == 0
+            ? EitherProgram.right(0L)
+            : EitherProgram.defer(() -> sum(n - 1)).map(total -> total + n);
+    }
+
+    // Sums the numbers up to n recursively, failing at the bottom if n is odd.
+    private static EitherProgram<String, Long> sumEven(int n) {
+        if (n <= 1) {
+            return n == 0 ? EitherProgram.right(0L) : EitherProgram.left("odd");
+        }
+
+        return EitherProgram.defer(() -> sumEven(n - 2)).flatMap(total -> EitherProgram.right(total + n));
+    }
+}
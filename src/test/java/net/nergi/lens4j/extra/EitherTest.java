@@ -0,0 +1,217 @@
+package net.nergi.lens4j.extra;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class EitherTest {
+    // Constants to test for.
+    private static final Either<String, Integer> LEFT = Either.toLeft("error");
+    private static final Either<String, Integer> RIGHT = Either.toRight(5);
+
+    @Test
+    void mapShouldApplyOnlyToRights() {
+        assertEquals(Either.toRight(10), RIGHT.map(i -> i * 2));
+        assertEquals(Either.toLeft("error"), LEFT.map(i -> i * 2));
+    }
+
+    @Test
+    void flatMapShouldSequenceRights() {
+        assertEquals(Either.toRight("5"), RIGHT.flatMap(i -> Either.toRight(i.toString())));
+        assertEquals(Either.toLeft("bad"), RIGHT.flatMap(i -> Either.toLeft("bad")));
+        assertEquals(Either.toLeft("error"), LEFT.flatMap(i -> Either.toRight(i.toString())));
+    }
+
+    @Test
+    void leftShouldBeReusedThroughChains() {
+        // Testing if the same left instance is returned from every step.
+        assertSame(LEFT, LEFT.map(i -> i * 2));
+        assertSame(LEFT, LEFT.flatMap(i -> Either.toRight(i.toString())));
+
+        Either<String, ?> current = LEFT;
+        for (int i = 0; i < 20; ++i) {
+            current = current.map(Object::toString).flatMap(Either::toRight);
+        }
+        assertSame(LEFT, current);
+    }
+
+    // Traversal tests.
+    @Test
+    void traverseShouldCollectRightsInOrder() {
+        // Our items and parser.
+        final List<String> items = List.of("1", "2", "3");
+
+        // Testing if every kind of input gives the same list.
+        assertEquals(Either.toRight(List.of(1, 2, 3)), Either.traverse(items, EitherTest::parse));
+        assertEquals(Either.toRight(List.of(1, 2, 3)),
+            Either.traverse(items.toArray(new String[0]), EitherTest::parse));
+        assertEquals(Either.toRight(List.of(1, 2, 3)), Either.traverse(items.stream(), EitherTest::parse));
+        assertEquals(Either.toRight(List.of()), Either.traverse(List.<String>of(), EitherTest::parse));
+
+        // Testing if the list cannot be modified.
+        final List<Integer> result = Either.traverse(items, EitherTest::parse).fromRight();
+        assertThrows(UnsupportedOperationException.class, () -> result.add(4));
+    }
+
+    @Test
+    void traverseShouldStopAtTheFirstLeft() {
+        // Our items, and the items that have been parsed.
+        final List<String> seen = new ArrayList<>();
+        final Stream<String> items = Stream.of("1", "x", "y", "4").peek(seen::add);
+
+        // Testing if the first left is returned, and nothing after it is parsed.
+        final Either<String, List<Integer>> result = Either.traverse(items, EitherTest::parse);
+        assertEquals(Either.toLeft("x"), result);
+        assertEquals(List.of("1", "x"), seen);
+    }
+
+    @Test
+    void sequenceShouldCollectRights() {
+        // Our either instances.
+        final List<Either<String, Integer>> rights = List.of(Either.toRight(1), Either.toRight(2));
+        final List<Either<String, Integer>> mixed = List.of(Either.toRight(1), LEFT, Either.toLeft("other"));
+
+        // Testing if rights are collected, and the first left wins.
+        assertEquals(Either.toRight(List.of(1, 2)), Either.sequence(rights));
+        assertEquals(Either.toRight(List.of(1, 2)), Either.sequence(rights.stream()));
+        assertSame(LEFT, Either.sequence(mixed));
+    }
+
+    @Test
+    void parallelTraverseShouldMatchSequentialTraverse() {
+        // Our items and pool.
+        final List<String> items = IntStream.range(0, 100_000).mapToObj(Integer::toString).toList();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            // Testing if the results are in encounter order.
+            final Either<String, List<Integer>> result = Either.traverseParallel(items, EitherTest::parse, pool);
+            assertEquals(Either.traverse(items, EitherTest::parse), result);
+            assertThrows(UnsupportedOperationException.class, () -> result.fromRight().set(0, 1));
+
+            // Testing if inputs that cannot be split by index give the same results.
+            final Set<String> set = new HashSet<>(items.subList(0, 1000));
+            assertEquals(Either.traverse(set, EitherTest::parse),
+                Either.traverseParallel(set, EitherTest::parse, pool));
+            assertEquals(Either.toRight(List.of()), Either.traverseParallel(List.<String>of(), EitherTest::parse));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parallelTraverseShouldReturnTheLeftmostLeft() {
+        // Our items, with several that are not numbers.
+        final List<String> items = IntStream.range(0, 100_000)
+            .mapToObj(i -> i % 25_000 == 24_999 ? "x" + i : Integer.toString(i))
+            .collect(Collectors.toList());
+
+        // Testing if the leftmost left always wins.
+        for (int i = 0; i < 20; ++i) {
+            assertEquals(Either.toLeft("x24999"), Either.traverseParallel(items, EitherTest::parse));
+        }
+    }
+
+    @Test
+    void attemptShouldCatchExceptions() {
+        // Our attempts.
+        final Either<Exception, Integer> success = Either.attempt(() -> Integer.parseInt("12"));
+        final Either<Exception, Integer> failure = Either.attempt(() -> Integer.parseInt("x"));
+        final Either<Exception, Integer> checked = Either.attempt(() -> {
+            throw new IOException("closed");
+        });
+
+        // Testing if results become rights and exceptions become lefts.
+        assertEquals(Either.toRight(12), success);
+        assertInstanceOf(NumberFormatException.class, failure.fromLeft());
+        assertEquals("closed", checked.fromLeft().getMessage());
+        assertEquals(Either.toLeft("x"), Either.attempt(() -> {
+            throw new Failure("x");
+        }, Throwable::getMessage));
+
+        // Testing if errors are not caught.
+        assertThrows(AssertionError.class, () -> Either.attempt(() -> {
+            throw new AssertionError();
+        }));
+    }
+
+    @Test
+    void attemptShouldRestoreTheInterruptFlag() {
+        // Our attempts, which are interrupted.
+        final Either<Exception, Integer> interrupted = Either.attempt(() -> {
+            throw new InterruptedException();
+        });
+        final boolean flagged = Thread.interrupted();
+        final Either<String, Integer> mapped = Either.attempt(() -> {
+            throw new InterruptedException("stop");
+        }, Throwable::getMessage);
+
+        // Testing if the exception becomes a left, and the thread is interrupted again.
+        assertInstanceOf(InterruptedException.class, interrupted.fromLeft());
+        assertTrue(flagged);
+        assertEquals(Either.toLeft("stop"), mapped);
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void failureShouldNotCaptureAStackTrace() {
+        // Our failure.
+        final Failure failure = new Failure("bad", new IllegalStateException());
+
+        // Testing if the failure is stackless and keeps its message and cause.
+        assertEquals(0, failure.getStackTrace().length);
+        assertEquals("bad", failure.getMessage());
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+
+        // Testing if suppressed exceptions are discarded.
+        failure.addSuppressed(new RuntimeException());
+        assertEquals(0, failure.getSuppressed().length);
+    }
+
+    @Test
+    void mapNShouldCombineRights() {
+        // Our rights.
+        final Either<String, Integer> one = Either.toRight(1);
+        final Either<String, String> two = Either.toRight("2");
+
+        // Testing if the items are combined in order.
+        assertEquals(Either.toRight("12"), Either.map2(one, two, (a, b) -> a + b));
+        assertEquals(Either.toRight(36), Either.map3(one, RIGHT, RIGHT, (a, b, c) -> a + b * c + 10));
+        assertEquals(Either.toRight(List.of(1, 5, 1, 5, 1, 5, 1, 5)), Either.map8(one, RIGHT, one, RIGHT, one, RIGHT,
+            one, RIGHT, List::of));
+    }
+
+    @Test
+    void mapNShouldReturnTheFirstLeft() {
+        // Our lefts, and a combiner counting its calls.
+        final Either<String, Integer> first = Either.toLeft("first");
+        final Either<String, Integer> second = Either.toLeft("second");
+        final AtomicInteger calls = new AtomicInteger();
+
+        // Testing if the first left is returned as-is without calling the combiner.
+        assertSame(LEFT, Either.map2(LEFT, second, (a, b) -> calls.incrementAndGet()));
+        assertSame(first, Either.map4(RIGHT, first, RIGHT, second, (a, b, c, d) -> calls.incrementAndGet()));
+        assertSame(second, Either.map6(RIGHT, RIGHT, RIGHT, RIGHT, RIGHT, second,
+            (a, b, c, d, e, f) -> calls.incrementAndGet()));
+        assertEquals(0, calls.get());
+    }
+
+    // Parses a number, giving the text back as a left if it is not one.
+    private static Either<String, Integer> parse(String text) {
+        try {
+            return Either.toRight(Integer.parseInt(text));
+        } catch (NumberFormatException e) {
+            return Either.toLeft(text);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package net.nergi.lens4j.extra;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ValidationTest {
+    // Constants to test for.
+    private static final Validation<String, Integer> VALID = Validation.valid(5);
+    private static final Validation<String, Integer> INVALID = Validation.invalid("bad");
+
+    @Test
+    void mapShouldApplyOnlyToValids() {
+        assertEquals(Validation.valid(10), VALID.map(i -> i * 2));
+        assertSame(INVALID, INVALID.map(i -> i * 2));
+    }
+
+    @Test
+    void combineShouldAccumulateErrors() {
+        // Our validations.
+        final Validation<String, Integer> other = Validation.invalid("worse");
+
+        // Testing if results are combined, and errors accumulated in order.
+        assertEquals(Validation.valid(10), VALID.combine(VALID, Integer::sum));
+        assertEquals(List.of("bad"), ((Invalid<String, Integer>) VALID.combine(INVALID, Integer::sum)).errors());
+        assertEquals(List.of("bad"), ((Invalid<String, Integer>) INVALID.combine(VALID, Integer::sum)).errors());
+        assertEquals(List.of("bad", "worse"),
+            ((Invalid<String, Integer>) INVALID.combine(other, Integer::sum)).errors());
+    }
+
+    @Test
+    void sequenceShouldCollectEveryResultOrError() {
+        // Our validations, with every third field invalid.
+        final List<Validation<String, Integer>> fields = IntStream.range(0, 200)
+            .mapToObj(i -> i % 3 == 0
+                ? Validation.<String, Integer>invalid("field " + i)
+                : Validation.<String, Integer>valid(i))
+            .toList();
+
+        // Testing if every error is kept in order.
+        final Validation<String, List<Integer>> result = Validation.sequence(fields);
+        final List<String> errors = ((Invalid<String, List<Integer>>) result).errors();
+        assertEquals(67, errors.size());
+        assertEquals("field 0", errors.get(0));
+        assertEquals("field 198", errors.get(66));
+        assertThrows(UnsupportedOperationException.class, () -> errors.add("more"));
+
+        // Testing if valid fields are collected.
+        assertEquals(Validation.valid(List.of(1, 2)), Validation.sequence(fields.subList(1, 3)));
+    }
+
+    @Test
+    void longChainsOfErrorsShouldNotOverflowTheStack() {
+        // Combining many invalids one after another, which builds a very deep chain.
+        Validation<Integer, Integer> result = Validation.valid(0);
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100_000; ++i) {
+            result = result.combine(Validation.invalid(i), Integer::sum);
+            expected.add(i);
+        }
+
+        // Testing if every error is laid out in order.
+        assertEquals(expected, ((Invalid<Integer, Integer>) result).errors());
+    }
+
+    @Test
+    void validationsShouldConvertToAndFromEither() {
+        assertEquals(Either.toRight(5), VALID.toEither());
+        assertEquals(Either.toLeft(List.of("bad")), INVALID.toEither());
+        assertEquals(VALID, Validation.fromEither(Either.toRight(5)));
+        assertEquals(INVALID, Validation.fromEither(Either.toLeft("bad")));
+    }
+}
@@ -0,0 +1,144 @@
+package net.nergi.lens4j.gen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.invoke.MethodHandles;
+import net.nergi.lens4j.SimpleLens;
+import org.junit.jupiter.api.Test;
+
+class GeneratedLensesTest {
+    // Our lookup, so private records can be used.
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    @Test
+    void generatedLensShouldViewSetAndMapDeepFields() {
+        // Our person.
+        final Person init = new Person("Alice", new Address(new City("London", 9_000_000L), 12), 1.5);
+
+        // Our generated lens.
+        final SimpleLens<Person, String> lens =
+            GeneratedLenses.forPath(LOOKUP, Person.class, "address", "city", "name");
+
+        // Testing if the lens can view, set and map the deep field.
+        assertEquals("London", lens.view(init));
+        assertEquals("Paris", lens.view(lens.set("Paris", init)));
+        assertEquals("LONDON", lens.view(lens.over(String::toUpperCase, init)));
+
+        // Testing if the rest of the person is left alone.
+        final Person set = lens.set("Paris", init);
+        assertEquals(init.name(), set.name());
+        assertEquals(init.height(), set.height());
+        assertEquals(init.address().number(), set.address().number());
+        assertEquals(init.address().city().population(), set.address().city().population());
+
+        // Testing if the person remains unchanged.
+        assertEquals("London", init.address().city().name());
+    }
+
+    @Test
+    void generatedLensShouldHandlePrimitiveFields() {
+        // Our person.
+        final Person init = new Person("Bob", new Address(new City("Leeds", 800_000L), 3), 1.8);
+
+        // Our generated lenses.
+        final SimpleLens<Person, Long> population =
+            GeneratedLenses.forPath(LOOKUP, Person.class, "address", "city", "population");
+        final SimpleLens<Person, Integer> number = GeneratedLenses.forPath(LOOKUP, Person.class, "address", "number");
+        final SimpleLens<Person, Double> height = GeneratedLenses.forPath(LOOKUP, Person.class, "height");
+
+        // Testing if the lenses can view, set and map primitive fields.
+        assertEquals(800_000L, population.view(init));
+        assertEquals(1L, population.view(population.set(1L, init)));
+        assertEquals(4, number.view(number.over(i -> i + 1, init)));
+        assertEquals(2.0, height.view(height.set(2.0, init)));
+    }
+
+    @Test
+    void generatedLensesShouldBeCached() {
+        // Testing if the same path gives back the same lens.
+        assertSame(GeneratedLenses.forPath(LOOKUP, Person.class, "address", "number"),
+            GeneratedLenses.forPath(LOOKUP, Person.class, "address", "number"));
+    }
+
+    @Test
+    void generatedLensesShouldRejectInvalidPaths() {
+        // Testing if missing components and non-record components are rejected.
+        assertThrows(IllegalArgumentException.class,
+            () -> GeneratedLenses.forPath(LOOKUP, Person.class, "address", "street"));
+        assertThrows(IllegalArgumentException.class,
+            () -> GeneratedLenses.forPath(LOOKUP, Person.class, "name", "length"));
+        assertThrows(IllegalArgumentException.class, () -> GeneratedLenses.forPath(LOOKUP, Person.class));
+    }
+
+    @Test
+    void generatedLensesShouldRejectInaccessibleRecords() {
+        // Testing if records private to another class are rejected up front.
+        assertThrows(IllegalArgumentException.class,
+            () -> GeneratedLenses.forPath(LOOKUP, Outsider.secretClass(), "value"));
+        assertThrows(IllegalArgumentException.class,
+            () -> GeneratedLenses.forPath(Outsider.LOOKUP, Person.class, "address", "number"));
+
+        // Testing if lookups without full privilege access are rejected.
+        assertThrows(IllegalArgumentException.class,
+            () -> GeneratedLenses.forPath(MethodHandles.publicLookup(), Person.class, "name"));
+    }
+
+    @Test
+    void generatedLensesShouldRejectWeakLookupsForCachedPaths() {
+        // Caching a lens for a record private to another class, through that class's own lookup.
+        final SimpleLens<?, Integer> cached = GeneratedLenses.forPath(Outsider.LOOKUP, Outsider.secretClass(),
+            "value");
+        final MethodHandles.Lookup weak = MethodHandles.publicLookup().in(Outsider.class);
+
+        // Testing if a lookup for the same class without full privilege access cannot get it back.
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> GeneratedLenses.forPath(weak, Outsider.secretClass(), "value"));
+        assertInstanceOf(IllegalAccessException.class, e.getCause());
+        assertSame(cached, GeneratedLenses.forPath(Outsider.LOOKUP, Outsider.secretClass(), "value"));
+    }
+
+    @Test
+    void generatedLensesShouldBeCachedPerLookupClass() {
+        // Our lenses, from two lookup classes.
+        final SimpleLens<Person, String> ours = GeneratedLenses.forPath(LOOKUP, Person.class, "name");
+        final SimpleLens<Outsider.Open, Integer> theirs =
+            GeneratedLenses.forPath(Outsider.LOOKUP, Outsider.Open.class, "value");
+        final SimpleLens<Outsider.Open, Integer> alsoTheirs =
+            GeneratedLenses.forPath(LOOKUP, Outsider.Open.class, "value");
+
+        // Testing if each lookup class gets its own lens.
+        assertEquals("Eve", ours.view(new Person("Eve", null, 1.0)));
+        assertNotSame(theirs, alsoTheirs);
+        assertEquals(3, theirs.view(alsoTheirs.set(3, new Outsider.Open(1))));
+    }
+
+    // Our record types.
+    private record City(String name, long population) {
+    }
+
+    private record Address(City city, int number) {
+    }
+
+    private record Person(String name, Address address, double height) {
+    }
+}
+
+/** Another class, which is not a nestmate of the test, with records of its own. */
+final class Outsider {
+    // Its lookup.
+    static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private Outsider() {
+    }
+
+    static Class<Secret> secretClass() {
+        return Secret.class;
+    }
+
+    // Its record types.
+    record Open(int value) {
+    }
+
+    private record Secret(int value) {
+    }
+}